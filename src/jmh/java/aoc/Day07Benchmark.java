@@ -0,0 +1,46 @@
+package aoc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day07Benchmark {
+    static final String INPUT = "inputs/07.txt";
+    Day07 solver;
+
+    @Setup
+    public void setup() throws IOException {
+        solver = new Day07(INPUT);
+    }
+
+    @Benchmark
+    public Day07 parse() throws IOException {
+        return new Day07(INPUT);
+    }
+
+    @Benchmark
+    public long partOne() {
+        return solver.partOne();
+    }
+
+    @Benchmark
+    public long partTwo() {
+        return solver.partTwo();
+    }
+}
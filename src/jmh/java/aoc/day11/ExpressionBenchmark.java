@@ -0,0 +1,89 @@
+package aoc.day11;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+// The operations of the input applied to ITEMS worry levels, every item by the monkey at its index modulo
+// the number of monkeys: through the operands (interpreted), through a lambda per shape (lambda),
+// and through the switch on the shape (compiled).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionBenchmark {
+    static final String INPUT = "inputs/11.txt";
+    static final int ITEMS = 1_000_000;
+    // squares of worry levels below this fit in a long
+    static final int MAX_WORRY = 1 << 30;
+
+    Expression[] expressions;
+    LongUnaryOperator[] operators;
+    long[] items;
+
+    @Setup
+    public void setup() throws IOException {
+        Day11 solver = new Day11(INPUT);
+        expressions = solver.monkeys.stream().map(Monkey::getOperation).toArray(Expression[]::new);
+        operators = Arrays.stream(expressions).map(ExpressionBenchmark::lambda).toArray(LongUnaryOperator[]::new);
+        Random random = new Random(11);
+        items = new long[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            items[i] = random.nextInt(MAX_WORRY);
+        }
+    }
+
+    // the lambda for the shape of the expression
+    static LongUnaryOperator lambda(Expression expression) {
+        long constant = expression.constant;
+        return switch (expression.shape) {
+            case Expression.SQUARE -> old -> Math.multiplyExact(old, old);
+            case Expression.DOUBLE -> old -> Math.addExact(old, old);
+            case Expression.MULTIPLY -> old -> Math.multiplyExact(old, constant);
+            case Expression.ADD -> old -> Math.addExact(old, constant);
+            default -> old -> constant;
+        };
+    }
+
+    @Benchmark
+    public long interpreted() {
+        long sum = 0;
+        for (int i = 0; i < items.length; i++) {
+            sum += expressions[i % expressions.length].interpret(items[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long lambda() {
+        long sum = 0;
+        for (int i = 0; i < items.length; i++) {
+            sum += operators[i % operators.length].applyAsLong(items[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long compiled() {
+        long sum = 0;
+        for (int i = 0; i < items.length; i++) {
+            sum += expressions[i % expressions.length].computeValue(items[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,54 @@
+package aoc.day19;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day19Benchmark {
+    static final String INPUT = "inputs/19.txt";
+    Day19 solver;
+
+    @Setup
+    public void setup() throws IOException {
+        solver = new Day19(INPUT);
+    }
+
+    @Benchmark
+    public Day19 parse() throws IOException {
+        return new Day19(INPUT);
+    }
+
+    // takes seconds per call, time single invocations instead
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @Benchmark
+    public int partOne() {
+        return solver.partOne();
+    }
+
+    // takes seconds per call, time single invocations instead
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @Benchmark
+    public int partTwo() {
+        return solver.partTwo();
+    }
+}
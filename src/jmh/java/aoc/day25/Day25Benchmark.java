@@ -0,0 +1,41 @@
+package aoc.day25;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day25Benchmark {
+    static final String INPUT = "inputs/25.txt";
+    Day25 solver;
+
+    @Setup
+    public void setup() throws IOException {
+        solver = new Day25(INPUT);
+    }
+
+    @Benchmark
+    public Day25 parse() throws IOException {
+        return new Day25(INPUT);
+    }
+
+    @Benchmark
+    public String partOne() {
+        return solver.partOne();
+    }
+}
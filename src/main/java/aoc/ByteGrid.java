@@ -0,0 +1,132 @@
+package aoc;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Row-major byte grid for the 2d puzzle days.
+// Cells are addressed either by (x, y) or by a flat index, stepping to a neighbour is adding one of the offsets.
+// An optional border of `padding` cells around the grid lets walks step off the edge without bounds checks,
+// x and y in [-padding, width + padding) are valid.
+public class ByteGrid {
+    public final int width;
+    public final int height;
+    public final int padding;
+    // distance between two vertically adjacent cells
+    public final int stride;
+    // right, left, down, up
+    public final int[] orthogonal;
+    // clockwise starting at up
+    public final int[] adjacent;
+    private final byte[] cells;
+
+    public ByteGrid(int width, int height, int padding, byte fill) {
+        if (width < 0 || height < 0 || padding < 0) {
+            throw new IllegalArgumentException(String.format("invalid grid size: %dx%d, padding %d", width, height, padding));
+        }
+        this.width = width;
+        this.height = height;
+        this.padding = padding;
+        this.stride = width + 2 * padding;
+        this.cells = new byte[Math.multiplyExact(stride, height + 2 * padding)];
+        this.orthogonal = new int[] { 1, -1, stride, -stride };
+        this.adjacent = new int[] { -stride, -stride + 1, 1, stride + 1, stride, stride - 1, -1, -stride - 1 };
+        fill(fill);
+    }
+
+    public ByteGrid(ByteGrid other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.padding = other.padding;
+        this.stride = other.stride;
+        this.cells = other.cells.clone();
+        this.orthogonal = other.orthogonal;
+        this.adjacent = other.adjacent;
+    }
+
+    // one row per line, every character a cell
+    // lines shorter than the longest one and the border are filled with `fill`
+    public static ByteGrid fromLines(List<String> lines, int padding, byte fill) {
+        int width = lines.stream().mapToInt(String::length).max().orElse(0);
+        ByteGrid grid = new ByteGrid(width, lines.size(), padding, fill);
+        for (int y = 0; y < lines.size(); y++) {
+            String line = lines.get(y);
+            int start = grid.index(0, y);
+            for (int x = 0; x < line.length(); x++) {
+                grid.cells[start + x] = (byte)line.charAt(x);
+            }
+        }
+        return grid;
+    }
+
+    public int index(int x, int y) {
+        return (y + padding) * stride + x + padding;
+    }
+
+    public int x(int index) {
+        return index % stride - padding;
+    }
+
+    public int y(int index) {
+        return index / stride - padding;
+    }
+
+    // number of cells including the border, every index is in [0, length())
+    public int length() {
+        return cells.length;
+    }
+
+    // inside the grid itself, not on the border
+    public boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public boolean isInside(int index) {
+        return isInside(x(index), y(index));
+    }
+
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    public byte get(int x, int y) {
+        return cells[index(x, y)];
+    }
+
+    public void set(int index, byte value) {
+        cells[index] = value;
+    }
+
+    public void set(int x, int y, byte value) {
+        cells[index(x, y)] = value;
+    }
+
+    public void fill(byte value) {
+        Arrays.fill(cells, value);
+    }
+
+    // fills one row of the grid, border columns included
+    public void fillRow(int y, byte value) {
+        int start = index(-padding, y);
+        Arrays.fill(cells, start, start + stride, value);
+    }
+
+    public void replace(byte from, byte to) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == from) {
+                cells[i] = to;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                builder.append((char)get(x, y));
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -1,79 +1,244 @@
 package aoc;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.PriorityQueue;
-import java.util.Scanner;
-
-public class Day01 {
-    ArrayList<Integer> elves = new ArrayList<>();
-
-    // Minheap for optimal space usage
-    // Stores at most MAX_HEAP_SIZE and contains the largest MAX_HEAP_SIZE elves
-    PriorityQueue<Integer> top_elves = new PriorityQueue<>();
-    static final int MAX_HEAP_SIZE = 3;
-
-    void addToTop(int elf) {
-        top_elves.add(elf);
-        if (top_elves.size() > MAX_HEAP_SIZE) {
-            top_elves.remove();
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// the k largest values offered so far in a min heap of primitives, the smallest of them is at the root
+class TopK {
+    private final long[] heap;
+    private int size = 0;
+
+    TopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
         }
+        this.heap = new long[k];
     }
 
-    void parse(String filename) {
-        try {
-            int elf = 0;
-            Scanner scanner = new Scanner(new File((filename)));
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if (line.length() == 0) {
-                    elves.add(elf);
-                    addToTop(elf);
-                    elf = 0;
-                } else {
-                    elf += Integer.parseInt(line);
-                }
+    void offer(long value) {
+        if (size < heap.length) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (value > heap[0]) {
+            heap[0] = value;
+            siftDown(0);
+        }
+    }
+
+    TopK merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.heap[i]);
+        }
+        return this;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0 && heap[(i - 1) / 2] > heap[i]) {
+            swap(i, (i - 1) / 2);
+            i = (i - 1) / 2;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
             }
-            if (elf != 0) {
-                elves.add(elf);
-                addToTop(elf);
+            if (left + 1 < size && heap[left + 1] < heap[smallest]) {
+                smallest = left + 1;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // largest first
+    long[] sorted() {
+        long[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted);
+        for (int i = 0; i < size / 2; i++) {
+            long tmp = sorted[i];
+            sorted[i] = sorted[size - 1 - i];
+            sorted[size - 1 - i] = tmp;
+        }
+        return sorted;
+    }
+}
+
+// The elves are never stored: the file is split into chunks at empty lines, every chunk is mapped and summed
+// on its own core into a TopK of its elves and the chunks are merged. Memory is O(k) per chunk whatever the input size.
+public class Day01 implements Solver {
+    static final int DEFAULT_K = 3;
+    // chunks smaller than this are not worth a task of their own, larger than MAX_CHUNK they cannot be mapped
+    static private final long MIN_CHUNK = 1 << 20;
+    static private final long MAX_CHUNK = 1 << 30;
+    // bytes read at a time while looking for the empty line that starts a chunk
+    static private final int BOUNDARY_READ = 1 << 12;
+
+    // the k largest elves, largest first
+    long[] top;
+
+    public Day01(String filename) throws IOException {
+        this(filename, DEFAULT_K);
+    }
+
+    public Day01(String filename, int k) throws IOException {
+        this.top = topElves(Paths.get(filename), k);
+        if (top.length == 0) {
+            throw new RuntimeException("no elves in " + filename);
+        }
+    }
+
+    static long[] topElves(Path path, int k) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Long> bounds = chunkBounds(channel);
+            return IntStream.range(0, bounds.size() - 1)
+                    .parallel()
+                    .mapToObj(i -> {
+                        try {
+                            long start = bounds.get(i);
+                            return sumElves(channel.map(FileChannel.MapMode.READ_ONLY, start, bounds.get(i + 1) - start), k);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .reduce(TopK::merge)
+                    .orElseGet(() -> new TopK(k))
+                    .sorted();
+        }
+    }
+
+    // offsets where chunks start, every chunk but the first starts right after an empty line
+    static List<Long> chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int)Math.max(
+                Math.min(size / MIN_CHUNK, 4L * Runtime.getRuntime().availableProcessors()),
+                (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        for (int i = 1; i < chunks; i++) {
+            long bound = nextRecord(channel, Math.max(size / chunks * i, bounds.get(bounds.size() - 1)));
+            if (bound > bounds.get(bounds.size() - 1) && bound < size) {
+                bounds.add(bound);
             }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            System.exit(1);
         }
+        bounds.add(size);
+        return bounds;
     }
-    void solve() {
-        if (elves.isEmpty()) {
-            throw new RuntimeException();
+
+    // offset after the first empty line at or after from, or the end of the file
+    // a '\r' is ignored like in sumElves, so "\r\n\r\n" separates elves as well
+    static long nextRecord(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_READ);
+        byte previous = 0;
+        long position = from;
+        while (channel.read(buffer.clear(), position) > 0) {
+            buffer.flip();
+            for (int i = 0; i < buffer.limit(); i++) {
+                byte ch = buffer.get(i);
+                if (ch == '\r') {
+                    continue;
+                }
+                if (ch == '\n' && previous == '\n') {
+                    return position + i + 1;
+                }
+                previous = ch;
+            }
+            position += buffer.limit();
         }
+        return channel.size();
+    }
 
-        // first solution attempt
-//        Collections.sort(elves);
-//        Collections.reverse(elves);
-//        int max = elves[0];
-//        int top3 = elves[0] + elves[1] + elves[2];
+    // <elves> = <elf> ("\n" <elf>)*
+    // <elf> = (INTEGER "\n")+
+    static TopK sumElves(ByteBuffer chunk, int k) {
+        TopK top = new TopK(k);
+        long elf = 0;
+        long value = 0;
+        boolean inElf = false;
+        byte previous = '\n';
+        int length = chunk.limit();
+        for (int i = 0; i < length; i++) {
+            byte ch = chunk.get(i);
+            if (ch >= '0' && ch <= '9') {
+                value = value * 10 + (ch - '0');
+            } else if (ch == '\n') {
+                if (previous != '\n') {
+                    elf += value;
+                    value = 0;
+                    inElf = true;
+                } else if (inElf) {
+                    top.offer(elf);
+                    elf = 0;
+                    inElf = false;
+                }
+            } else if (ch == '\r') {
+                continue;
+            } else {
+                throw new RuntimeException(String.format("unexpected '%c' in the calories", (char)ch));
+            }
+            previous = ch;
+        }
+        // the last line may not end with a newline
+        if (previous != '\n') {
+            elf += value;
+            inElf = true;
+        }
+        if (inElf) {
+            top.offer(elf);
+        }
+        return top;
+    }
 
-        // functional stream stolen from Tijmen
-        int p1 = elves.stream().mapToInt(a -> a).max().getAsInt();
-        int p2 = elves.stream().sorted(Collections.reverseOrder()).limit(3).reduce(0, Integer::sum);
+    long sumOfTop(int n) {
+        long sum = 0;
+        for (int i = 0; i < Math.min(n, top.length); i++) {
+            sum += top[i];
+        }
+        return sum;
+    }
 
-        // PQ solution
-        // PQ contains at most 3 elements making it O(1) in terms of space complexity
-        // The largest element is the third element
-        assert top_elves.size() == 3;
-        assert p1 == top_elves.stream().skip(2).iterator().next();
-        assert p2 == top_elves.stream().reduce(0, Integer::sum);
+    public Long partOne() {
+        return top[0];
+    }
 
-        System.out.printf("P1: %d\n", p1);
-        System.out.printf("P2: %d\n", p2);
+    public Long partTwo() {
+        return sumOfTop(3);
     }
 
-    public static void main(String[] args) {
-        Day01 day01 = new Day01();
-        day01.parse("inputs/01.txt");
-        day01.solve();
+    // usage: Day01 [FILE [K]], prints the sum of the K largest elves as well
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "inputs/01.txt";
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_K;
+        Day01 day01 = new Day01(filename, Math.max(k, DEFAULT_K));
+        System.out.printf("P1: %d\n", day01.partOne());
+        System.out.printf("P2: %d\n", day01.partTwo());
+        if (k != DEFAULT_K) {
+            System.out.printf("top %d: %d\n", k, day01.sumOfTop(k));
+        }
     }
 }
@@ -1,37 +1,73 @@
 package aoc;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
-
-public class Day02 {
-
-    int p1 = 0;
-    int p2 = 0;
-
-    public void parse(String filename) {
-        p1 = 0;
-        p2 = 0;
-        try {
-            Scanner scanner = new Scanner(new File((filename)));
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                do_move(line);
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Every round is a fixed width record "A X\n" (or "A X\r\n"), so the file is mapped in slices of whole records
+// which are scored in parallel with a table lookup per record.
+public class Day02 implements Solver {
+    // "A X" before the line ending
+    static private final int ROUND = 3;
+    // slices are at least this large to be worth a task, and at most 1 GB so they can be mapped
+    static private final long MIN_SLICE = 1 << 20;
+    static private final long MAX_SLICE = 1 << 30;
+
+    // score of a round by 3 * opponent + second column, both 0-2
+    static private final int[] PART_ONE = table(true);
+    static private final int[] PART_TWO = table(false);
+
+    List<ByteBuffer> slices = new ArrayList<>();
+    // offset of every slice in the file
+    List<Long> offsets = new ArrayList<>();
+    // bytes per record, with the line ending
+    int record;
+
+    public Day02(String filename) throws IOException {
+        parse(filename);
+    }
+
+    public void parse(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer first = ByteBuffer.allocate(ROUND + 1);
+            channel.read(first, 0);
+            record = first.position() == ROUND + 1 && first.get(ROUND) == '\r' ? ROUND + 2 : ROUND + 1;
+            long records = (size + record - 1) / record;
+            int count = (int)Math.max(
+                    Math.min(size / MIN_SLICE, 4L * Runtime.getRuntime().availableProcessors()),
+                    (size + MAX_SLICE - 1) / MAX_SLICE);
+            count = Math.max(1, count);
+            for (int i = 0; i < count; i++) {
+                long start = records * i / count * record;
+                long end = Math.min(size, records * (i + 1) / count * record);
+                slices.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+                offsets.add(start);
             }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            System.exit(1);
         }
     }
 
+    static int[] table(boolean partOne) {
+        int[] table = new int[9];
+        for (int a = 0; a < 3; a++) {
+            for (int b = 0; b < 3; b++) {
+                table[3 * a + b] = partOne ? score_p1(a, b) : score_p2(a, b);
+            }
+        }
+        return table;
+    }
+
     // 0 beats 2
     // 1 beats 0
     // 2 beats 1
     // N = N+1 point
 
-    private int score_p1(char a, char b) {
-        a -= 'A';
-        b -= 'X';
+    private static int score_p1(int a, int b) {
         int score = b + 1;
         if (a == b) {
             score += 3;
@@ -41,9 +77,7 @@ public class Day02 {
         return score;
     }
 
-    private int score_p2(char a, char b) {
-        a -= 'A';
-        b -= 'X';
+    private static int score_p2(int a, int b) {
         int score = 0;
         if (b == 0) {
             // lose
@@ -60,21 +94,59 @@ public class Day02 {
         return score;
     }
 
-    private void do_move(String move) {
-        // 3 for draw, 6 for win
-        // A,B,C = R,P,S
-        // X,Y,Z = R,P,S
-        char x = move.charAt(0);
-        char y = move.charAt(2);
-        // a pair (x, y) always maps to the same score so we could just memoization here
-        p1 += score_p1(x, y);
-        p2 += score_p2(x, y);
+    // the last record may miss (part of) its line ending, and empty lines may follow it
+    static long score(ByteBuffer slice, long offset, int record, int[] table) {
+        long total = 0;
+        int length = slice.limit();
+        for (int i = 0; i < length; i += record) {
+            if (onlyLineEnds(slice, i)) {
+                break;
+            }
+            boolean valid = i + ROUND <= length;
+            int a = valid ? slice.get(i) - 'A' : -1;
+            int b = valid ? slice.get(i + 2) - 'X' : -1;
+            valid = valid && a >= 0 && a <= 2 && b >= 0 && b <= 2 && slice.get(i + 1) == ' ';
+            // "\r\n" or "\n", as far as the slice goes
+            for (int j = i + ROUND; valid && j < Math.min(length, i + record); j++) {
+                valid = slice.get(j) == (j == i + record - 1 ? '\n' : '\r');
+            }
+            if (!valid) {
+                throw new RuntimeException(String.format("expected a round like \"A X\" at %d", offset + i));
+            }
+            total += table[3 * a + b];
+        }
+        return total;
+    }
+
+    static boolean onlyLineEnds(ByteBuffer slice, int from) {
+        for (int i = from; i < slice.limit(); i++) {
+            if (slice.get(i) != '\n' && slice.get(i) != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long score(int[] table) {
+        return IntStream.range(0, slices.size()).parallel()
+                .mapToLong(i -> score(slices.get(i), offsets.get(i), record, table))
+                .sum();
+    }
+
+    // 3 for draw, 6 for win
+    // A,B,C = R,P,S
+    // X,Y,Z = R,P,S
+    public Long partOne() {
+        return score(PART_ONE);
+    }
+
+    public Long partTwo() {
+        return score(PART_TWO);
     }
 
-    public static void main(String[] args) {
-        Day02 day02 = new Day02();
-        day02.parse("inputs/02.txt");
-        System.out.printf("P1: %d\n", day02.p1);
-        System.out.printf("P2: %d\n", day02.p2);
+    public static void main(String[] args) throws IOException {
+        Day02 day02 = new Day02(args.length > 0 ? args[0] : "inputs/02.txt");
+        System.out.printf("P1: %d\n", day02.partOne());
+        System.out.printf("P2: %d\n", day02.partTwo());
     }
 }
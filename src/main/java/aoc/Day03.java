@@ -1,74 +1,101 @@
 package aoc;
 
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
-public class Day03 {
-    void partOne(String filename) {
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader(filename));
-            int sum = reader.lines().map(Day03::handle_rucksack).reduce(0, Integer::sum);
-            System.out.printf("P1: %d\n", sum);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            System.exit(1);
+// Every compartment is a 64-bit mask with bit p set for each item of priority p (1-52),
+// so the item in both compartments, or the badge of a group, is the lowest bit of an AND.
+public class Day03 implements Solver {
+    // priority of an item byte, 0 for bytes that are not items
+    static private final byte[] PRIORITY = new byte[128];
+    static {
+        for (char ch = 'a'; ch <= 'z'; ch++) {
+            PRIORITY[ch] = (byte)(ch - 'a' + 1);
+        }
+        for (char ch = 'A'; ch <= 'Z'; ch++) {
+            PRIORITY[ch] = (byte)(ch - 'A' + 27);
         }
     }
 
-    static int getPriority(char ch) {
-        if (Character.isUpperCase(ch)) {
-            return ch - 'A' + 27;
-        } else {
-            if (!Character.isLowerCase(ch)) {
-                throw new IllegalArgumentException();
+    // masks of the first and second compartment of every rucksack
+    long[] left;
+    long[] right;
+
+    public Day03(String filename) throws IOException {
+        Input input = Input.map(filename);
+        // offsets where the lines start, followed by where a line after the last would start
+        int[] starts = new int[1024];
+        int n = 0;
+        while (input.hasRemaining()) {
+            if (n + 1 == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * starts.length);
             }
-            return ch - 'a' + 1;
+            starts[n++] = input.position();
+            input.nextLine();
         }
+        boolean newline = input.length() > 0 && input.get(input.length() - 1) == '\n';
+        starts[n] = newline ? input.length() : input.length() + 1;
+        int lines = n;
+        int[] offsets = starts;
+        this.left = new long[lines];
+        this.right = new long[lines];
+        // groups of three lines are independent, the masks of a group are filled by one task
+        IntStream.range(0, (lines + 2) / 3).parallel().forEach(group -> {
+            for (int line = 3 * group; line < Math.min(lines, 3 * group + 3); line++) {
+                int start = offsets[line];
+                int end = offsets[line + 1] - 1;
+                int middle = start + (end - start) / 2;
+                left[line] = mask(input, start, middle);
+                right[line] = mask(input, middle, end);
+            }
+        });
     }
 
-    static int handle_rucksack(String rs) {
-        String A = rs.substring(0, rs.length() / 2);
-        Set<Character> B = rs.substring(rs.length() / 2).chars().mapToObj(ch -> (char)ch).collect(Collectors.toSet());
-        int score = 0;
-        for (int i = 0; i < A.length(); i++) {
-            char ch = A.charAt(i);
-            if (B.contains(ch)) {
-                score = getPriority(ch);
-                break;
+    static long mask(Input input, int from, int to) {
+        long mask = 0;
+        for (int i = from; i < to; i++) {
+            byte ch = input.get(i);
+            int priority = ch >= 0 ? PRIORITY[ch] : 0;
+            if (priority == 0) {
+                throw new RuntimeException(String.format("unexpected '%c' in a rucksack at %d", (char)ch, i));
             }
+            mask |= 1L << priority;
         }
-        return score;
+        return mask;
     }
 
-    void partTwo(String filename) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(filename));
-            int priority = 0;
-            for (int i = 0; i < lines.size(); i += 3) {
-                String a = lines.get(i);
-                Set<Character> b = lines.get(i + 1).chars().mapToObj(ch -> (char)ch).collect(Collectors.toSet());
-                Set<Character> c = lines.get(i + 2).chars().mapToObj(ch -> (char)ch).collect(Collectors.toSet());
-                for (int j = 0; j < a.length(); j++) {
-                    char ch = a.charAt(j);
-                    if (b.contains(ch) && c.contains(ch)) {
-                        priority += getPriority(ch);
-                        break;
-                    }
-                }
-            }
-            System.out.printf("Priority: %d\n", priority);
-        } catch (IOException e) {
-            System.exit(1);
+    // priority of the lowest item in the mask, 0 if it is empty
+    static int priority(long mask) {
+        return mask == 0 ? 0 : Long.numberOfTrailingZeros(mask);
+    }
+
+    public Integer partOne() {
+        int total = 0;
+        for (int line = 0; line < left.length; line++) {
+            total += priority(left[line] & right[line]);
         }
+        return total;
+    }
+
+    public Integer partTwo() {
+        if (left.length % 3 != 0) {
+            throw new RuntimeException("the rucksacks do not form groups of three");
+        }
+        return IntStream.range(0, left.length / 3).parallel()
+                .map(group -> {
+                    long badge = -1L;
+                    for (int line = 3 * group; line < 3 * group + 3; line++) {
+                        badge &= left[line] | right[line];
+                    }
+                    return priority(badge);
+                })
+                .sum();
     }
 
-    public static void main(String[] args) {
-        Day03 day03 = new Day03();
-        String filename = "inputs/03.txt";
-        day03.partOne(filename);
-        day03.partTwo(filename);
+    public static void main(String[] args) throws IOException {
+        Day03 day03 = new Day03(args.length > 0 ? args[0] : "inputs/03.txt");
+        System.out.printf("P1: %d\n", day03.partOne());
+        System.out.printf("Priority: %d\n", day03.partTwo());
     }
 }
@@ -1,8 +1,7 @@
 package aoc;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.util.Arrays;
 
 class InclusiveRange {
     private final int low;
@@ -20,6 +19,14 @@ class InclusiveRange {
         this.high = high;
     }
 
+    int getLow() {
+        return low;
+    }
+
+    int getHigh() {
+        return high;
+    }
+
     public boolean contains(InclusiveRange other) {
         return this.low <= other.low && this.high >= other.high;
     }
@@ -33,47 +40,162 @@ class InclusiveRange {
     }
 }
 
-public class Day04 {
+// Sorted bounds of all assignments, and of the sections shared by the pairs that overlap,
+// so counting the intervals that hold a section or meet a range is a few binary searches.
+// An interval [low, high] meets [a, b] unless low > b or high < a, which can't both be true,
+// so the count is the total minus the intervals on either side.
+class AssignmentIndex {
+    private final int[] lows;
+    private final int[] highs;
+    private final int[] sharedLows;
+    private final int[] sharedHighs;
 
-    public static boolean fully_contains(InclusiveRange a, InclusiveRange b) {
-        return a.contains(b) || b.contains(a);
+    AssignmentIndex(int[] bounds) {
+        int pairs = bounds.length / 4;
+        lows = new int[2 * pairs];
+        highs = new int[2 * pairs];
+        int[] sharedLows = new int[pairs];
+        int[] sharedHighs = new int[pairs];
+        int shared = 0;
+        for (int pair = 0; pair < pairs; pair++) {
+            int i = 4 * pair;
+            lows[2 * pair] = bounds[i];
+            highs[2 * pair] = bounds[i + 1];
+            lows[2 * pair + 1] = bounds[i + 2];
+            highs[2 * pair + 1] = bounds[i + 3];
+            int low = Math.max(bounds[i], bounds[i + 2]);
+            int high = Math.min(bounds[i + 1], bounds[i + 3]);
+            if (low <= high) {
+                sharedLows[shared] = low;
+                sharedHighs[shared] = high;
+                shared++;
+            }
+        }
+        this.sharedLows = Arrays.copyOf(sharedLows, shared);
+        this.sharedHighs = Arrays.copyOf(sharedHighs, shared);
+        Arrays.parallelSort(lows);
+        Arrays.parallelSort(highs);
+        Arrays.parallelSort(this.sharedLows);
+        Arrays.parallelSort(this.sharedHighs);
     }
 
-    public static boolean overlaps(InclusiveRange a, InclusiveRange b) {
-        return a.overlaps(b) || b.overlaps(a);
+    // number of values <= value in the sorted array
+    static int countAtMost(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
-    public void solve(String filename) {
-        int partOne = 0;
-        int partTwo = 0;
-        try {
-            Scanner scanner = new Scanner(new File(filename));
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                // <line> = <range> "," <range>
-                String[] ranges = line.split(",");
-                if (ranges.length != 2) {
-                    throw new RuntimeException("expected two ranges per line");
-                }
-                InclusiveRange a = new InclusiveRange(ranges[0]);
-                InclusiveRange b = new InclusiveRange(ranges[1]);
-                if (fully_contains(a, b)) {
-                    partOne += 1;
-                }
-                if (overlaps(a, b)) {
-                    partTwo += 1;
-                }
+    // an inverted range would subtract an interval between its bounds on both sides
+    static int meeting(int[] lows, int[] highs, int a, int b) {
+        if (a > b) {
+            throw new IllegalArgumentException(String.format("empty range: %d-%d", a, b));
+        }
+        int right = lows.length - countAtMost(lows, b);
+        int left = countAtMost(highs, a - 1);
+        return lows.length - right - left;
+    }
+
+    // assignments that include the section
+    int covering(int section) {
+        return meeting(lows, highs, section, section);
+    }
+
+    // assignments with at least one section in the range
+    int overlapping(InclusiveRange range) {
+        return meeting(lows, highs, range.getLow(), range.getHigh());
+    }
+
+    // pairs with a section in the range that both elves are assigned to, which is less than the pairs where
+    // both elves merely have a section in it: 1-2,9-10 shares nothing in 1-10
+    int pairsSharingIn(InclusiveRange range) {
+        return meeting(sharedLows, sharedHighs, range.getLow(), range.getHigh());
+    }
+
+    // pairs where both elves are assigned to the section
+    int pairsSharing(int section) {
+        return meeting(sharedLows, sharedHighs, section, section);
+    }
+}
+
+public class Day04 implements Solver {
+    // each pair is four consecutive bounds: low and high of the first elf, low and high of the second
+    int[] bounds;
+
+    public Day04(String filename) throws IOException {
+        Input input = Input.map(filename);
+        // "1-2,3-4\n" is at least eight bytes per pair
+        int[] bounds = new int[input.length() / 8 * 4 + 4];
+        int n = 0;
+        while (input.hasRemaining()) {
+            // <line> = <range> "," <range>
+            // <range> = INTEGER "-" INTEGER
+            bounds[n++] = input.readInt();
+            input.expect('-');
+            bounds[n++] = input.readInt();
+            input.expect(',');
+            bounds[n++] = input.readInt();
+            input.expect('-');
+            bounds[n++] = input.readInt();
+            if (!input.atEndOfLine()) {
+                throw new RuntimeException("expected two ranges per line");
+            }
+            input.nextLine();
+        }
+        this.bounds = Arrays.copyOf(bounds, n);
+    }
+
+    public Integer partOne() {
+        int count = 0;
+        for (int i = 0; i < bounds.length; i += 4) {
+            // one of the ranges contains the other
+            if ((bounds[i] <= bounds[i + 2] && bounds[i + 1] >= bounds[i + 3])
+                    || (bounds[i + 2] <= bounds[i] && bounds[i + 3] >= bounds[i + 1])) {
+                count += 1;
             }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            System.exit(1);
         }
-        System.out.printf("P1: %d\n", partOne);
-        System.out.printf("P2: %d\n", partTwo);
+        return count;
     }
 
-    public static void main(String[] args) {
-        Day04 day04 = new Day04();
-        day04.solve("inputs/04.txt");
+    public Integer partTwo() {
+        int count = 0;
+        for (int i = 0; i < bounds.length; i += 4) {
+            if (bounds[i] <= bounds[i + 3] && bounds[i + 2] <= bounds[i + 1]) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    AssignmentIndex index() {
+        return new AssignmentIndex(bounds);
+    }
+
+    // usage: Day04 [FILE [SECTION | LOW-HIGH]...]
+    // the queries print the assignments and the pairs sharing a section at a section or in a range
+    public static void main(String[] args) throws IOException {
+        Day04 day04 = new Day04(args.length > 0 ? args[0] : "inputs/04.txt");
+        System.out.printf("P1: %d\n", day04.partOne());
+        System.out.printf("P2: %d\n", day04.partTwo());
+        if (args.length > 1) {
+            AssignmentIndex index = day04.index();
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].contains("-")) {
+                    InclusiveRange range = new InclusiveRange(args[i]);
+                    System.out.printf("%s: %d assignments, %d pairs sharing a section\n", args[i], index.overlapping(range), index.pairsSharingIn(range));
+                } else {
+                    int section = Integer.parseInt(args[i]);
+                    System.out.printf("%d: %d assignments, %d pairs sharing it\n", section, index.covering(section), index.pairsSharing(section));
+                }
+            }
+        }
     }
 }
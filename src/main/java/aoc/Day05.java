@@ -1,25 +1,88 @@
 package aoc;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Stack;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.List;
 
-public class Day05 {
-    ArrayList<Stack<Character>> p1_stacks = new ArrayList<>();
-    ArrayList<Stack<Character>> p2_stacks = new ArrayList<>();
+// a stack of crates in a growing char[], the top is at size - 1
+class CrateStack {
+    char[] crates;
+    int size = 0;
 
-    private void parse_stacks(String[] input) {
+    CrateStack(int capacity) {
+        this.crates = new char[Math.max(capacity, 16)];
+    }
+
+    CrateStack(CrateStack other) {
+        this.crates = Arrays.copyOf(other.crates, other.crates.length);
+        this.size = other.size;
+    }
+
+    void push(char crate) {
+        ensureCapacity(size + 1);
+        crates[size++] = crate;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > crates.length) {
+            crates = Arrays.copyOf(crates, Math.max(capacity, 2 * crates.length));
+        }
+    }
+
+    // moves the top n crates as one block, reversed when they are moved one at a time
+    // onto the same stack they end up where they were, one at a time as well as all at once
+    void moveTo(CrateStack to, int n, boolean oneAtATime) {
+        if (n > size) {
+            throw new RuntimeException(String.format("cannot move %d crates from a stack of %d", n, size));
+        }
+        if (to == this) {
+            return;
+        }
+        int start = size - n;
+        to.ensureCapacity(to.size + n);
+        System.arraycopy(crates, start, to.crates, to.size, n);
+        if (oneAtATime) {
+            reverse(to.crates, to.size, to.size + n);
+        }
+        to.size += n;
+        size = start;
+    }
+
+    static void reverse(char[] chars, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            char tmp = chars[i];
+            chars[i] = chars[j];
+            chars[j] = tmp;
+        }
+    }
+
+    char top() {
+        if (size == 0) {
+            throw new RuntimeException("empty stack");
+        }
+        return crates[size - 1];
+    }
+}
+
+public class Day05 implements Solver {
+    List<CrateStack> stacks = new ArrayList<>();
+    // n, from and to of every move, from and to are zero based
+    int[] moves;
+
+    public Day05(String filename) throws IOException {
+        parse(filename);
+    }
+
+    private void parse_stacks(List<String> lines) {
+        String[] input = lines.toArray(new String[0]);
         // Number of chars is 4 * N - 1 = length where N is the number of stacks
         // N = (L + 1) / 4
         int numStacks = (input[0].length() + 1) / 4;
         for (int i = 0; i < numStacks; i += 1) {
             int position = i * 4 + 1;
-            p1_stacks.add(new Stack<>());
-            p2_stacks.add(new Stack<>());
+            CrateStack stack = new CrateStack(input.length);
+            stacks.add(stack);
             for (int j = input.length - 2; j >= 0; j--) {
                 char ch = input[j].charAt(position);
                 if (ch == ' ') {
@@ -27,74 +90,84 @@ public class Day05 {
                 } else if (!Character.isUpperCase(ch)) {
                     throw new RuntimeException("Expected uppercase character");
                 }
-                p1_stacks.get(i).add(ch);
-                p2_stacks.get(i).add(ch);
+                stack.push(ch);
             }
         }
     }
 
-    private void parse(String filename) {
-        try {
-            String content = Files.readString(Paths.get(filename));
-            String[] halves = content.split("\n\n");
-            String[] stacks = halves[0].split("\n");
-            parse_stacks(stacks);
-            String[] moves = halves[1].split("\n");
-            do_moves(moves);
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+    private void parse(String filename) throws IOException {
+        Input input = Input.map(filename);
+        // the drawing is the first record, the moves the second
+        List<String> stacks = new ArrayList<>();
+        while (!input.atEndOfRecord()) {
+            stacks.add(input.readLine());
         }
+        parse_stacks(stacks);
+        input.nextRecord();
+        parse_moves(input);
     }
 
     // move 1 from 5 to 2
     // move %d from %d to %d
-    private void do_moves(String[] moves) {
-        String regex = "^move (\\d+) from (\\d+) to (\\d+)$";
-        Pattern pattern = Pattern.compile(regex);
-        for (String move : moves) {
-            if (move.isEmpty()) {
-                continue;
-            }
-            Matcher matcher = pattern.matcher(move);
-            if (!matcher.find()) {
-                throw new RuntimeException("matcher didn't find match");
-            }
-            int n = Integer.parseInt(matcher.group(1));
-            int from = Integer.parseInt(matcher.group(2)) - 1;
-            int to = Integer.parseInt(matcher.group(3)) - 1;
-
-            char[] chars = new char[n];
-            for (int j = 0; j < n; j++) {
-                // p1
-                char ch = p1_stacks.get(from).pop();
-                p1_stacks.get(to).add(ch);
-                chars[j] = p2_stacks.get(from).pop();
-            }
-            for (int j = chars.length - 1; j >= 0; j--) {
-                p2_stacks.get(to).add(chars[j]);
-            }
+    private void parse_moves(Input input) {
+        // "move 1 from 1 to 2\n" is at least 19 bytes
+        int[] moves = new int[(input.length() - input.position()) / 19 * 3 + 3];
+        int n = 0;
+        while (input.hasRemaining()) {
+            input.expect("move ");
+            moves[n++] = input.readInt();
+            input.expect(" from ");
+            moves[n++] = stackIndex(input.readInt());
+            input.expect(" to ");
+            moves[n++] = stackIndex(input.readInt());
+            input.nextLine();
         }
+        this.moves = Arrays.copyOf(moves, n);
     }
 
-    private String[] topString() {
-        StringBuilder p1 = new StringBuilder();
-        StringBuilder p2 = new StringBuilder();
-        for (int i = 0; i < p1_stacks.size(); i++) {
-            p1.append(p1_stacks.get(i).peek());
-            p2.append(p2_stacks.get(i).peek());
+    private int stackIndex(int stack) {
+        if (stack < 1 || stack > stacks.size()) {
+            throw new RuntimeException("no such stack: " + stack);
         }
-        String[] parts = new String[2];
-        parts[0] = p1.toString();
-        parts[1] = p2.toString();
-        return parts;
-    }
-
-    public static void main(String[] args) {
-        Day05 day05 = new Day05();
-        day05.parse("inputs/05.txt");
-        String[] parts = day05.topString();
-        System.out.printf("p1: %s\n", parts[0]);
-        System.out.printf("p2: %s\n", parts[1]);
+        return stack - 1;
+    }
+
+    private List<CrateStack> copyStacks() {
+        List<CrateStack> copy = new ArrayList<>();
+        for (CrateStack stack : stacks) {
+            copy.add(new CrateStack(stack));
+        }
+        return copy;
+    }
+
+    // the CrateMover 9000 moves one crate at a time, the 9001 all of them at once
+    private String rearrange(boolean oneAtATime) {
+        List<CrateStack> stacks = copyStacks();
+        for (int i = 0; i < moves.length; i += 3) {
+            stacks.get(moves[i + 1]).moveTo(stacks.get(moves[i + 2]), moves[i], oneAtATime);
+        }
+        return topString(stacks);
+    }
+
+    public String partOne() {
+        return rearrange(true);
+    }
+
+    public String partTwo() {
+        return rearrange(false);
+    }
+
+    private static String topString(List<CrateStack> stacks) {
+        StringBuilder top = new StringBuilder();
+        for (CrateStack stack : stacks) {
+            top.append(stack.top());
+        }
+        return top.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Day05 day05 = new Day05(args.length > 0 ? args[0] : "inputs/05.txt");
+        System.out.printf("p1: %s\n", day05.partOne());
+        System.out.printf("p2: %s\n", day05.partTwo());
     }
 }
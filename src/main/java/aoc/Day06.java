@@ -1,39 +1,147 @@
 package aoc;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Paths;
-import java.util.stream.Collectors;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
-public class Day06 {
+// Finds the first marker of several window sizes in one pass over a stream of the signal.
+// Every window keeps a count per letter and the number of distinct letters in it,
+// both updated with the letter entering and the letter leaving, so every byte is O(1) per window.
+class MarkerDetector {
+    static private final int CHUNK = 1 << 16;
 
-    static private boolean isMarker(String s, int position, int n) {
-        return s.substring(position - n + 1, position + 1)
-                .chars()
-                .mapToObj(ch -> (char)ch)
-                .collect(Collectors.toSet())
-                .size() == n;
+    private final int[] windows;
+    private final int[][] counts;
+    private final int[] distinct;
+    // position after the marker of every window, -1 until it is found
+    private final long[] found;
+    private int remaining;
+    // the last letters, enough for the largest window
+    private final byte[] history;
+    private long position = 0;
+    private boolean ended = false;
+
+    MarkerDetector(int... windows) {
+        this.windows = windows.clone();
+        this.counts = new int[windows.length][26];
+        this.distinct = new int[windows.length];
+        this.found = new long[windows.length];
+        this.remaining = windows.length;
+        int largest = 1;
+        for (int window : windows) {
+            if (window < 1 || window > 26) {
+                throw new IllegalArgumentException("a window holds 1 to 26 distinct letters: " + window);
+            }
+            largest = Math.max(largest, window);
+        }
+        this.history = new byte[largest];
+        Arrays.fill(found, -1);
+    }
+
+    boolean isDone() {
+        return remaining == 0 || ended;
+    }
+
+    // the signal ends at the first newline
+    void accept(byte ch) {
+        if (ended) {
+            return;
+        }
+        if (ch == '\n' || ch == '\r') {
+            ended = true;
+            return;
+        }
+        int letter = ch - 'a';
+        if (letter < 0 || letter >= 26) {
+            throw new RuntimeException(String.format("unexpected '%c' in the signal at %d", (char)ch, position));
+        }
+        for (int i = 0; i < windows.length; i++) {
+            if (found[i] != -1) {
+                continue;
+            }
+            int[] count = counts[i];
+            if (count[letter]++ == 0) {
+                distinct[i]++;
+            }
+            if (position >= windows[i]) {
+                int leaving = history[(int)((position - windows[i]) % history.length)] - 'a';
+                if (--count[leaving] == 0) {
+                    distinct[i]--;
+                }
+            }
+            if (distinct[i] == windows[i]) {
+                found[i] = position + 1;
+                remaining--;
+            }
+        }
+        history[(int)(position % history.length)] = ch;
+        position++;
+    }
+
+    // reads the channel in chunks until every marker is found or the signal ends
+    void scan(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK);
+        while (!isDone() && channel.read(buffer.clear()) != -1) {
+            buffer.flip();
+            for (int i = 0; i < buffer.limit() && !isDone(); i++) {
+                accept(buffer.get(i));
+            }
+        }
     }
 
-    private static int doPart(String line, int n) {
-        for (int i = n - 1; i < line.length(); i++) {
-            if (isMarker(line, i, n)) {
-                return i + 1;
+    long found(int window) {
+        for (int i = 0; i < windows.length; i++) {
+            if (windows[i] == window) {
+                return found[i];
             }
         }
-        return -1;
+        throw new IllegalArgumentException("not detecting window " + window);
     }
+}
 
-    public static void main(String[] args) {
-        String filename = "inputs/06.txt";
-        try {
-            String line = Files.readString(Paths.get(filename));
-            int p1 = doPart(line, 4);
-            int p2 = doPart(line, 14);
-            System.out.printf("p1: %d\n", p1);
-            System.out.printf("p2: %d\n", p2);
-        } catch (IOException e) {
-            System.exit(1);
+public class Day06 implements Solver {
+    static private final int PACKET = 4;
+    static private final int MESSAGE = 14;
+
+    // both markers are found while the input is read, -1 if there is none
+    long packet;
+    long message;
+
+    public Day06(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            detect(channel);
         }
     }
+
+    public Day06(ReadableByteChannel channel) throws IOException {
+        detect(channel);
+    }
+
+    private void detect(ReadableByteChannel channel) throws IOException {
+        MarkerDetector detector = new MarkerDetector(PACKET, MESSAGE);
+        detector.scan(channel);
+        packet = detector.found(PACKET);
+        message = detector.found(MESSAGE);
+    }
+
+    public Long partOne() {
+        return packet;
+    }
+
+    public Long partTwo() {
+        return message;
+    }
+
+    // usage: Day06 [FILE | -], - reads the signal from standard input
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "inputs/06.txt";
+        Day06 day06 = filename.equals("-") ? new Day06(Channels.newChannel(System.in)) : new Day06(filename);
+        System.out.printf("p1: %d\n", day06.partOne());
+        System.out.printf("p2: %d\n", day06.partTwo());
+    }
 }
@@ -1,28 +1,29 @@
 package aoc;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
 
 interface CustomFile {
-    int getSize();
+    long getSize();
     boolean isDirectory();
-    void print(int indentation);
+    void printLine(int indentation);
     String getId();
 }
 
 class RegularFile implements CustomFile {
-    int size;
+    long size;
     String filename;
 
-    RegularFile(String filename, int size) {
+    RegularFile(String filename, long size) {
         this.size = size;
         this.filename = filename;
     }
 
-    public int getSize() {
+    public long getSize() {
         return size;
     }
 
@@ -30,7 +31,7 @@ class RegularFile implements CustomFile {
         return false;
     }
 
-    public void print(int indentation) {
+    public void printLine(int indentation) {
         for (int i = 0; i < indentation; i++) {
             System.out.print(" ");
         }
@@ -43,19 +44,21 @@ class RegularFile implements CustomFile {
 }
 
 class Directory implements CustomFile {
-    ArrayList<CustomFile> files = new ArrayList<>();
+    // by name, in the order they were listed
+    Map<String, CustomFile> files = new LinkedHashMap<>();
     Directory parent;
     String id;
+    // total size of everything below this directory
+    long size = 0;
+    // part of size that is not yet in the size of the parent, see Day07
+    long pending = 0;
 
     Directory(String id, Directory parent) {
         this.parent = parent;
         this.id = id;
     }
-    public int getSize() {
-        int size = 0;
-        for (CustomFile file : files) {
-            size += (file.getSize());
-        }
+
+    public long getSize() {
         return size;
     }
 
@@ -63,8 +66,25 @@ class Directory implements CustomFile {
         return true;
     }
 
-    void addCustomFile(CustomFile file) {
-        files.add(file);
+    // false if there already is a file with that name, listing a directory twice doesn't count its files twice
+    boolean addCustomFile(CustomFile file) {
+        if (files.putIfAbsent(file.getId(), file) != null) {
+            return false;
+        }
+        if (!file.isDirectory()) {
+            size += file.getSize();
+            pending += file.getSize();
+        }
+        return true;
+    }
+
+    // adds the pending size to the parent, where it is pending in turn
+    void passSizeToParent() {
+        if (parent != null) {
+            parent.size += pending;
+            parent.pending += pending;
+        }
+        pending = 0;
     }
 
     Directory getParent() {
@@ -75,9 +95,9 @@ class Directory implements CustomFile {
         return id;
     }
 
-    ArrayList<Directory> getDirectories() {
-        ArrayList<Directory> dirs = new ArrayList<>();
-        for (CustomFile file: files) {
+    List<Directory> getDirectories() {
+        List<Directory> dirs = new ArrayList<>();
+        for (CustomFile file : files.values()) {
             if (file.isDirectory()) {
                 dirs.add((Directory)file);
             }
@@ -86,123 +106,287 @@ class Directory implements CustomFile {
     }
 
     public CustomFile getFileByName(String name) {
-        for (CustomFile file: files) {
-            if (file.getId().equals(name)) {
-                return file;
-            }
-        }
-        return null;
+        return files.get(name);
     }
 
-    public void print(int indentation) {
+    public void printLine(int indentation) {
         for (int i = 0; i < indentation; i++) {
             System.out.print(" ");
         }
         System.out.printf(" - %s (dir)\n", getId());
-        for (CustomFile file : files) {
-            file.print(indentation + 2);
+    }
+
+    // depth first without recursion, so deep trees don't overflow the stack
+    public void print(int indentation) {
+        Deque<Object[]> todo = new ArrayDeque<>();
+        todo.push(new Object[] { this, indentation });
+        while (!todo.isEmpty()) {
+            Object[] next = todo.pop();
+            CustomFile file = (CustomFile)next[0];
+            int indent = (int)next[1];
+            file.printLine(indent);
+            if (file.isDirectory()) {
+                List<CustomFile> children = new ArrayList<>(((Directory)file).files.values());
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    todo.push(new Object[] { children.get(i), indent + 2 });
+                }
+            }
         }
     }
 }
 
-public class Day07 {
+// sizes of all directories as an ordered multiset, with the total of the small ones (part one) kept on the side
+class DirectorySizes {
+    static final long SMALL = 100000;
+    private final TreeMap<Long, Integer> counts = new TreeMap<>();
+    private long smallTotal = 0;
+
+    void add(long size) {
+        counts.merge(size, 1, Integer::sum);
+        if (size <= SMALL) {
+            smallTotal += size;
+        }
+    }
+
+    void remove(long size) {
+        if (counts.merge(size, -1, Integer::sum) == 0) {
+            counts.remove(size);
+        }
+        if (size <= SMALL) {
+            smallTotal -= size;
+        }
+    }
+
+    void changed(long before, long after) {
+        remove(before);
+        add(after);
+    }
+
+    long smallTotal() {
+        return smallTotal;
+    }
+
+    // null if every directory is smaller
+    Long smallestAtLeast(long size) {
+        return counts.ceilingKey(size);
+    }
+}
+
+// The size of a directory is kept up to date when a file is added, without walking all its parents:
+// a file adds to the size of its directory and to its pending size, which is passed on to the parent on "$ cd ..".
+// Only the directories from the root to the current one have pending sizes, they are passed up at the end of the
+// transcript and on "$ cd /". Every line is O(1) (or O(depth) for "$ cd /"), so parsing is linear.
+// A replay (like following a log that is still being written) passes the size of a new file to all parents at once
+// and indexes the sizes in DirectorySizes: a file is O(depth log n), the answers are up to date after every line
+// and part one is O(1), part two O(log n).
+public class Day07 implements Solver {
     Directory root = null;
     Directory current = null;
+    // every directory in the order they were listed
+    List<Directory> directories = new ArrayList<>();
+    // only while replaying
+    DirectorySizes index = null;
 
-    final int TOTAL_SIZE = 70000000;
-    final int REQUIRED_SIZE = 30000000;
+    static final long TOTAL_SIZE = 70000000;
+    static final long REQUIRED_SIZE = 30000000;
+    static private final long FOLLOW_INTERVAL_MILLIS = 500;
 
-    void processDirectory(Scanner scanner, String id) {
-        if (current == null) {
-            current = new Directory(id, null);
-            root = current;
-        } else {
-            current = (Directory)current.getFileByName(id);
+    public Day07(String filename) throws IOException {
+        parse(filename);
+    }
+
+    private Day07() {
+    }
+
+    // an empty file system which is built by accepting the transcript a few lines at a time
+    static Day07 replay() {
+        Day07 day07 = new Day07();
+        day07.index = new DirectorySizes();
+        return day07;
+    }
+
+    // complete lines of the transcript
+    void accept(Input lines) {
+        while (lines.hasRemaining()) {
+            readLine(lines);
         }
-        if (!scanner.nextLine().equals("$ ls")) {
-            throw new RuntimeException("expected ls");
+    }
+
+    void parse(String filename) throws IOException {
+        Input input = Input.map(filename);
+        while (input.hasRemaining()) {
+            readLine(input);
         }
-        while (scanner.hasNextLine()) {
-            String p = "\\$ cd .*";
-            Pattern pattern = Pattern.compile(p);
-            if (scanner.hasNext(pattern)) {
-                break;
-            }
-            String line = scanner.nextLine();
-            if (line.startsWith("dir")) {
-                String subdirId = line.split(" ")[1];
-                Directory subdir = new Directory(subdirId, current);
-                current.addCustomFile(subdir);
+        passSizesToRoot();
+    }
+
+    // <line> = "$ cd " NAME | "$ ls" | "dir " NAME | INTEGER " " NAME
+    void readLine(Input input) {
+        if (input.accept('$')) {
+            input.expect(' ');
+            if (input.accept('c')) {
+                input.expect("d ");
+                changeDirectory(readName(input));
             } else {
-                String[] parts = line.split(" ");
-                int size = Integer.parseInt(parts[0]);
-                String filename = parts[1];
-                current.addCustomFile(new RegularFile(filename, size));
+                input.expect("ls");
+            }
+        } else if (input.accept('d')) {
+            input.expect("ir ");
+            addDirectory(readName(input));
+        } else {
+            long size = input.readLong();
+            input.expect(' ');
+            addFile(readName(input), size);
+        }
+        if (!input.atEndOfLine()) {
+            throw new RuntimeException(String.format("unexpected '%c' at %d", (char)input.peek(), input.position()));
+        }
+        input.nextLine();
+    }
+
+    static String readName(Input input) {
+        int start = input.position();
+        int end = input.lineEnd();
+        input.position(end);
+        return input.text(start, end);
+    }
+
+    void addDirectory(String name) {
+        Directory subdir = new Directory(name, currentDirectory());
+        if (current.addCustomFile(subdir)) {
+            directories.add(subdir);
+            if (index != null) {
+                index.add(0);
             }
         }
     }
 
-    int calculatePartOne(Directory dir) {
-        int sum = 0;
-        int size = dir.getSize();
-        if (size <= 100000) {
-            sum += size;
+    void addFile(String name, long size) {
+        Directory dir = currentDirectory();
+        if (!dir.addCustomFile(new RegularFile(name, size)) || index == null) {
+            return;
         }
-        for (Directory subdir : dir.getDirectories()) {
-            sum += (calculatePartOne(subdir));
+        index.changed(dir.getSize() - size, dir.getSize());
+        for (Directory child = dir; child.getParent() != null; child = child.getParent()) {
+            long before = child.getParent().getSize();
+            child.passSizeToParent();
+            index.changed(before, child.getParent().getSize());
         }
-        return sum;
     }
-    void partOne(String filename) {
-        try {
-            Scanner scanner = new Scanner(new File(filename));
-            scanner.useDelimiter("\n");
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if (line.startsWith("$ cd")) {
-                    String id = line.split(" ")[2];
-                    if (id.equals("..")) {
-                        current = current.getParent();
-                        continue;
-                    }
-                    processDirectory(scanner, id);
-                } else {
-                    throw new RuntimeException(line);
-                }
+
+    Directory currentDirectory() {
+        if (current == null) {
+            throw new RuntimeException("expected a cd first");
+        }
+        return current;
+    }
+
+    // the first cd is into the root
+    void changeDirectory(String id) {
+        if (root == null) {
+            root = new Directory(id, null);
+            directories.add(root);
+            if (index != null) {
+                index.add(0);
+            }
+            current = root;
+        } else if (id.equals("..")) {
+            if (current.getParent() == null) {
+                throw new RuntimeException("cd .. from the root");
             }
-            int size = calculatePartOne(root);
-            System.out.printf("p1: %d\n", size);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-            System.exit(1);
+            current.passSizeToParent();
+            current = current.getParent();
+        } else if (id.equals(root.getId())) {
+            passSizesToRoot();
+            current = root;
+        } else {
+            CustomFile file = current.getFileByName(id);
+            if (file == null || !file.isDirectory()) {
+                throw new RuntimeException(String.format("no directory %s in %s", id, current.getId()));
+            }
+            current = (Directory)file;
         }
     }
 
-    int smallest = Integer.MAX_VALUE;
+    void passSizesToRoot() {
+        for (Directory dir = current; dir != null; dir = dir.getParent()) {
+            dir.passSizeToParent();
+        }
+    }
 
-    void calculatePartTwo(Directory dir, int required) {
-        int size = dir.getSize();
-        if (size >= required && size < smallest) {
-            smallest = size;
+    public Long partOne() {
+        if (index != null) {
+            return index.smallTotal();
         }
-        for (Directory subdir : dir.getDirectories()) {
-            calculatePartTwo(subdir, required);
+        long sum = 0;
+        for (Directory dir : directories) {
+            if (dir.getSize() <= 100000) {
+                sum += dir.getSize();
+            }
         }
+        return sum;
     }
 
+    // null if no directory is large enough (or there is none yet)
+    public Long partTwo() {
+        if (root == null) {
+            return null;
+        }
+        long available = TOTAL_SIZE - root.getSize();
+        long required = REQUIRED_SIZE - available;
+        if (index != null) {
+            return index.smallestAtLeast(required);
+        }
+        long smallest = Long.MAX_VALUE;
+        for (Directory dir : directories) {
+            if (dir.getSize() >= required && dir.getSize() < smallest) {
+                smallest = dir.getSize();
+            }
+        }
+        return smallest == Long.MAX_VALUE ? null : smallest;
+    }
 
-    void partTwo() {
-        int available = TOTAL_SIZE - root.getSize();
-        int required = REQUIRED_SIZE - available;
-        calculatePartTwo(root, required);
-        System.out.printf("available: %d, required: %d\n", available,required);
-        System.out.printf("p2: %d\n", smallest);
+    // replays the file as it grows, printing the answers whenever they change; stop with ctrl-c
+    static void follow(String filename) throws IOException, InterruptedException {
+        Day07 replay = replay();
+        byte[] pending = new byte[0];
+        long position = 0;
+        String previous = "";
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            while (true) {
+                ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    Thread.sleep(FOLLOW_INTERVAL_MILLIS);
+                    continue;
+                }
+                position += read;
+                // an incomplete last line waits for the rest of it
+                byte[] bytes = Arrays.copyOf(pending, pending.length + read);
+                System.arraycopy(buffer.array(), 0, bytes, pending.length, read);
+                int complete = bytes.length;
+                while (complete > 0 && bytes[complete - 1] != '\n') {
+                    complete--;
+                }
+                replay.accept(new Input(ByteBuffer.wrap(bytes, 0, complete)));
+                pending = Arrays.copyOfRange(bytes, complete, bytes.length);
+                String answers = String.format("p1: %d, p2: %s", replay.partOne(), replay.partTwo());
+                if (!answers.equals(previous)) {
+                    System.out.println(answers);
+                    previous = answers;
+                }
+            }
+        }
     }
 
-    public static void main(String[] args) {
-        Day07 day07 = new Day07();
-        String filename = "inputs/07.txt";
-        day07.partOne(filename);
-        day07.partTwo();
+    // usage: Day07 [FILE] | --follow FILE
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 2 && args[0].equals("--follow")) {
+            follow(args[1]);
+            return;
+        }
+        Day07 day07 = new Day07(args.length > 0 ? args[0] : "inputs/07.txt");
+        System.out.printf("p1: %d\n", day07.partOne());
+        System.out.printf("p2: %d\n", day07.partTwo());
     }
 }
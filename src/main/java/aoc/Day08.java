@@ -3,103 +3,169 @@ package aoc;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
-public class Day08 {
-    String[] grid;
+public class Day08 implements Solver {
+    // tree heights 0-9 surrounded by a border of BORDER
+    static private final byte BORDER = -1;
+    static private final int HEIGHTS = 10;
+    // rows kept at a time, and columns swept together by one task
+    static private final int BAND = 64;
+    static private final int COLUMN_BLOCK = 1024;
+    ByteGrid grid;
     int height;
     int width;
+    // both parts come from one sweep while parsing
+    long visible;
+    long bestScore;
 
-    Day08(String filename) {
-        try {
-            grid = Files.readString(Paths.get(filename)).split("\n");
-            height = grid.length;
-            width = grid[0].length();
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+    public Day08(String filename) throws IOException {
+        grid = ByteGrid.fromLines(Files.readAllLines(Paths.get(filename)), 1, BORDER);
+        height = grid.height;
+        width = grid.width;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int tree = grid.get(x, y) - '0';
+                if (tree < 0 || tree >= HEIGHTS) {
+                    throw new RuntimeException(String.format("expected a digit at %d,%d", x, y));
+                }
+                grid.set(x, y, (byte)tree);
+            }
         }
+        sweep();
     }
 
-    int getTreeHeight(int x, int y) {
-        if (!isValidIndex(x, y)) {
-            return -1;
+    // position of the nearest earlier tree at least as high as tree, -1 if there is none
+    static int blocker(int[] lastSeen, int tree) {
+        int blocker = -1;
+        for (int height = tree; height < HEIGHTS; height++) {
+            blocker = Math.max(blocker, lastSeen[height]);
         }
-        return grid[y].charAt(x) - '0';
+        return blocker;
     }
 
-    boolean isValidIndex(int x, int y) {
-        return x >= 0 && x < width && y >= 0 && y < height;
-    }
-
-    int maxTree(int x, int y, int dx, int dy) {
-        int largest = -1;
-        x += dx;
-        y += dy;
-        while (isValidIndex(x, y)) {
-            largest = Integer.max(largest, getTreeHeight(x, y));
-            x += dx;
-            y += dy;
+    // per cell of a row at offset: 2 * (viewing distance to the left * to the right) + 1 if visible from the left
+    // or the right
+    void sweepRow(int y, long[] horizontal, int offset) {
+        int start = grid.index(0, y);
+        int[] lastSeen = new int[HEIGHTS];
+        int[] left = new int[width];
+        boolean[] fromLeft = new boolean[width];
+        Arrays.fill(lastSeen, -1);
+        for (int x = 0; x < width; x++) {
+            int tree = grid.get(start + x);
+            int blocker = blocker(lastSeen, tree);
+            left[x] = x - Math.max(blocker, 0);
+            fromLeft[x] = blocker == -1;
+            lastSeen[tree] = x;
+        }
+        Arrays.fill(lastSeen, -1);
+        for (int x = width - 1; x >= 0; x--) {
+            int tree = grid.get(start + x);
+            int position = width - 1 - x;
+            int blocker = blocker(lastSeen, tree);
+            long right = position - Math.max(blocker, 0);
+            boolean visible = fromLeft[x] || blocker == -1;
+            horizontal[offset + x] = 2 * left[x] * right + (visible ? 1 : 0);
+            lastSeen[tree] = position;
         }
-        return largest;
     }
 
-    int partOne() {
-        int seen = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int value = getTreeHeight(x, y);
-                if (value > maxTree(x, y, -1, 0)
-                    || value > maxTree(x, y, 1, 0)
-                    || value > maxTree(x, y, 0, 1)
-                    || value > maxTree(x, y, 0, -1)
-                ) {
-                    seen += 1;
+    // The columns [from, to) of the rows of a band, with the stacks of the columns (see Day08):
+    // the visible trees and the best scenic score of the trees whose view down ended in the band.
+    long[] sweepColumns(int from, int to, int first, int rows, long[] horizontal, Stacks stacks) {
+        long visible = 0;
+        long best = 0;
+        for (int row = 0; row < rows; row++) {
+            int y = first + row;
+            int start = grid.index(0, y);
+            for (int x = from; x < to; x++) {
+                int tree = grid.get(start + x);
+                int base = x * HEIGHTS;
+                int size = stacks.sizes[x];
+                // the lower trees, and one as high, see down to this one
+                int blocker = -1;
+                while (size > 0 && stacks.heights[base + size - 1] <= tree) {
+                    size--;
+                    long entry = stacks.scores[base + size];
+                    visible += entry & 1;
+                    best = Math.max(best, (entry >> 1) * (y - stacks.rows[base + size]));
+                    if (stacks.heights[base + size] == tree) {
+                        blocker = stacks.rows[base + size];
+                    }
                 }
+                if (blocker == -1 && size > 0) {
+                    blocker = stacks.rows[base + size - 1];
+                }
+                long up = blocker == -1 ? y : y - blocker;
+                long sides = horizontal[row * width + x];
+                stacks.rows[base + size] = y;
+                stacks.heights[base + size] = (byte)tree;
+                stacks.scores[base + size] = 2 * ((sides >> 1) * up) + ((sides & 1) | (blocker == -1 ? 1 : 0));
+                stacks.sizes[x] = size + 1;
             }
         }
-        return seen;
+        return new long[] { visible, best };
+    }
+
+    // Trees of every column that have no tree at least as high below them yet, from the top down.
+    // Their heights are strictly decreasing, so there are at most HEIGHTS per column.
+    // score: 2 * (viewing distance left * right * up) + 1 if visible from the left, the right or the top
+    class Stacks {
+        final int[] sizes = new int[width];
+        final int[] rows = new int[width * HEIGHTS];
+        final byte[] heights = new byte[width * HEIGHTS];
+        final long[] scores = new long[width * HEIGHTS];
     }
 
-    int treesVisibleFrom(int x, int y, int value, int dx, int dy) {
-        int seen = 0;
-        x += dx;
-        y += dy;
-        while (isValidIndex(x, y)) {
-            int h = getTreeHeight(x, y);
-            seen += 1;
-            if (h >= value) {
-                break;
+    // Every row is swept from the left and from the right, remembering the last position of every height.
+    // The nearest tree blocking the view is the last one seen that is at least as high, none means visible from
+    // the edge. The columns keep the stack of Stacks while the rows go down: a new tree ends the view down of the
+    // trees on the stack that are not higher, and the one above it on the stack after that blocks its view up.
+    // The trees left at the bottom are visible from there.
+    // The rows are taken a band at a time, the rows of a band and then blocks of its columns are independent
+    // tasks. O(width * height), and memory for a band and the stacks apart from the grid.
+    void sweep() {
+        long[] horizontal = new long[BAND * width];
+        Stacks stacks = new Stacks();
+        int blocks = (width + COLUMN_BLOCK - 1) / COLUMN_BLOCK;
+        long visible = 0;
+        long best = 0;
+        for (int band = 0; band < height; band += BAND) {
+            int first = band;
+            int rows = Math.min(BAND, height - band);
+            IntStream.range(0, rows).parallel().forEach(row -> sweepRow(first + row, horizontal, row * width));
+            long[] result = IntStream.range(0, blocks).parallel()
+                    .mapToObj(block -> sweepColumns(block * COLUMN_BLOCK, Math.min(width, (block + 1) * COLUMN_BLOCK),
+                            first, rows, horizontal, stacks))
+                    .reduce(new long[] { 0, 0 }, (a, b) -> new long[] { a[0] + b[0], Math.max(a[1], b[1]) });
+            visible += result[0];
+            best = Math.max(best, result[1]);
+        }
+        for (int x = 0; x < width; x++) {
+            for (int i = x * HEIGHTS; i < x * HEIGHTS + stacks.sizes[x]; i++) {
+                visible++;
+                best = Math.max(best, (stacks.scores[i] >> 1) * (height - 1 - stacks.rows[i]));
             }
-            x += dx;
-            y += dy;
         }
-        return seen;
+        this.visible = visible;
+        this.bestScore = best;
     }
 
-    int getScenicScore(int x, int y) {
-        int value = getTreeHeight(x, y);
-        return treesVisibleFrom(x, y, value, 1, 0)
-            * treesVisibleFrom(x, y, value, -1, 0)
-            * treesVisibleFrom(x, y, value, 0, 1)
-            * treesVisibleFrom(x, y, value, 0, -1);
+    public Integer partOne() {
+        return Math.toIntExact(visible);
     }
 
-    int partTwo() {
-        int p2 = -1;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int score = getScenicScore(x, y);
-                p2 = Integer.max(p2, score);
-            }
-        }
-        return p2;
+    public Long partTwo() {
+        return bestScore;
     }
 
-    public static void main(String[] args) {
-        String filename = "inputs/08.txt";
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "inputs/08.txt";
         Day08 day08 = new Day08(filename);
         int p1 = day08.partOne();
-        int p2 = day08.partTwo();
+        long p2 = day08.partTwo();
         System.out.printf("p1: %d\n", p1);
         System.out.printf("p2: %d\n", p2);
     }
@@ -1,110 +1,163 @@
 package aoc;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
-class Move {
-    private final int amount;
-    private final Point direction;
+// A rope of any number of knots as two int arrays, knot 0 is the head.
+// Every knot only depends on the knots in front of it, so a long rope also simulates every shorter one:
+// the tail of a rope of n knots is knot n - 1. A knot that doesn't move leaves the rest of the rope in place,
+// so a step stops at the first knot that stays put.
+// No knot leaves the bounding box of the path of the head, the cells visited by every knot are a bitmap over it
+// when they fit in MAX_BITMAPS, and packed in a PointSet otherwise.
+class Rope {
+    static private final long MAX_BITMAPS = 1L << 31;
 
-    Move(String line) {
-        String[] parts = line.split(" ");
-        this.amount = Integer.parseInt(parts[1]);
-        this.direction = switch (parts[0]) {
-            case "R":
-                yield new Point(1, 0);
-            case "L":
-                yield new Point(-1, 0);
-            case "U":
-                yield new Point(0, 1);
-            case "D":
-                yield new Point(0, -1);
-            default:
-                throw new IllegalArgumentException("invalid line: " + line);
-        };
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] counts;
+    // bounding box of the head, bitmaps is null when the sets are used
+    private final int minX;
+    private final int minY;
+    private final int width;
+    private final long[][] bitmaps;
+    private final PointSet[] sets;
+
+    Rope(int knots, int minX, int minY, int maxX, int maxY) {
+        if (knots < 1) {
+            throw new IllegalArgumentException("a rope has at least one knot: " + knots);
+        }
+        xs = new int[knots];
+        ys = new int[knots];
+        counts = new int[knots];
+        this.minX = minX;
+        this.minY = minY;
+        this.width = maxX - minX + 1;
+        long cells = (long)width * (maxY - minY + 1);
+        if (cells * knots <= MAX_BITMAPS) {
+            bitmaps = new long[knots][(int)((cells + 63) / 64)];
+            sets = null;
+        } else {
+            bitmaps = null;
+            sets = new PointSet[knots];
+            for (int knot = 0; knot < knots; knot++) {
+                sets[knot] = new PointSet();
+            }
+        }
+        for (int knot = 0; knot < knots; knot++) {
+            visit(knot);
+        }
+    }
+
+    private void visit(int knot) {
+        if (bitmaps != null) {
+            int cell = (ys[knot] - minY) * width + xs[knot] - minX;
+            long bit = 1L << cell;
+            long[] bitmap = bitmaps[knot];
+            if ((bitmap[cell >>> 6] & bit) == 0) {
+                bitmap[cell >>> 6] |= bit;
+                counts[knot]++;
+            }
+        } else if (sets[knot].add(xs[knot], ys[knot])) {
+            counts[knot]++;
+        }
     }
 
-    public int getAmount() {
-        return amount;
+    void move(int dx, int dy, int amount) {
+        for (int i = 0; i < amount; i++) {
+            xs[0] += dx;
+            ys[0] += dy;
+            visit(0);
+            for (int knot = 1; knot < xs.length; knot++) {
+                int x = xs[knot - 1] - xs[knot];
+                int y = ys[knot - 1] - ys[knot];
+                if (Math.abs(x) <= 1 && Math.abs(y) <= 1) {
+                    break;
+                }
+                xs[knot] += Integer.signum(x);
+                ys[knot] += Integer.signum(y);
+                visit(knot);
+            }
+        }
     }
 
-    public Point getDelta() {
-        return direction;
+    // number of cells visited by every knot
+    int[] visitedCounts() {
+        return counts.clone();
     }
 }
 
-public class Day09 {
-    final int NUM_TAILS = 9;
-    ArrayList<Move> moves;
-    HashSet<Point> visited = new HashSet<>();
-    Day09(String filename) {
-        try {
-            this.moves = Files.readAllLines(Paths.get(filename)).stream().map(Move::new).collect(Collectors.toCollection(ArrayList::new));
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+public class Day09 implements Solver {
+    static private final int[] DX = { 1, -1, 0, 0 };
+    static private final int[] DY = { 0, 0, 1, -1 };
+    static private final int PART_ONE_KNOTS = 2;
+    static private final int PART_TWO_KNOTS = 10;
+
+    // direction (index into DX and DY) and amount of every move
+    int[] moves;
+
+    public Day09(String filename) throws IOException {
+        Input input = Input.map(filename);
+        // "R 1\n" is at least four bytes per move
+        int[] moves = new int[input.length() / 4 * 2 + 2];
+        int n = 0;
+        while (input.hasRemaining()) {
+            // <line> = ("R" | "L" | "U" | "D") " " INTEGER
+            byte dir = input.next();
+            moves[n++] = switch (dir) {
+                case 'R' -> 0;
+                case 'L' -> 1;
+                case 'U' -> 2;
+                case 'D' -> 3;
+                default -> throw new IllegalArgumentException("invalid direction: " + (char)dir);
+            };
+            input.expect(' ');
+            moves[n++] = input.readInt();
+            input.nextLine();
         }
+        this.moves = Arrays.copyOf(moves, n);
     }
 
-    static Point updateTail(Point head, Point tail) {
-        if (head.isAdjacent(tail)) {
-            return tail;
-        } else {
-            Point delta = tail.directionTo(head);
-            return tail.add(delta);
+    // cells visited by knot k of a rope of the given length, which is the tail of a rope of k + 1 knots
+    int[] visitedCounts(int knots) {
+        int x = 0, y = 0;
+        int minX = 0, minY = 0, maxX = 0, maxY = 0;
+        for (int i = 0; i < moves.length; i += 2) {
+            x += DX[moves[i]] * moves[i + 1];
+            y += DY[moves[i]] * moves[i + 1];
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
         }
+        Rope rope = new Rope(knots, minX, minY, maxX, maxY);
+        for (int i = 0; i < moves.length; i += 2) {
+            rope.move(DX[moves[i]], DY[moves[i]], moves[i + 1]);
+        }
+        return rope.visitedCounts();
     }
 
-    public static void main(String[] args) {
-        String filename = "inputs/09.txt";
-        Day09 day09 = new Day09(filename);
-        int p1 = day09.partOne();
-        int p2 = day09.partTwo();
-        System.out.printf("p1: %d\n", p1);
-        System.out.printf("p2: %d\n", p2);
+    public Integer partOne() {
+        return visitedCounts(PART_ONE_KNOTS)[PART_ONE_KNOTS - 1];
     }
 
-    int partOne() {
-        Point head = new Point(0, 0);
-        Point tail = new Point(0, 0);
-        visited.add(new Point(tail));
-        for (Move move : moves) {
-            Point delta = move.getDelta();
-            for (int i = 0; i < move.getAmount(); i++) {
-                head = head.add(delta);
-                tail = updateTail(head, tail);
-                visited.add(new Point(tail));
-            }
-        }
-        return visited.size();
+    public Integer partTwo() {
+        return visitedCounts(PART_TWO_KNOTS)[PART_TWO_KNOTS - 1];
     }
 
-    int partTwo() {
-        Point head = new Point(0, 0);
-        ArrayList<Point> parts = new ArrayList<>();
-        for (int i = 0; i < NUM_TAILS; i++) {
-            parts.add(new Point(0, 0));
-        }
-        visited.clear();
-        visited.add(new Point(0, 0));
-        for (Move move : moves) {
-            Point delta = move.getDelta();
-            for (int i = 0; i < move.getAmount(); i++) {
-                head = head.add(delta);
-                Point newHead = new Point(head);
-                for (int j = 0; j < NUM_TAILS; j++) {
-                    Point tail = new Point(parts.get(j));
-                    Point newTail = updateTail(newHead, tail);
-                    parts.set(j, newTail);
-                    newHead = new Point(newTail);
-                }
-                visited.add(new Point(parts.get(NUM_TAILS - 1)));
+    // usage: Day09 [FILE [KNOTS]], with KNOTS prints the cells visited by the tail of every rope up to that length
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "inputs/09.txt";
+        Day09 day09 = new Day09(filename);
+        if (args.length > 1) {
+            int[] counts = day09.visitedCounts(Integer.parseInt(args[1]));
+            for (int knot = 0; knot < counts.length; knot++) {
+                System.out.printf("%d knots: %d\n", knot + 1, counts[knot]);
             }
+            return;
         }
-        return visited.size();
+        int p1 = day09.partOne();
+        int p2 = day09.partTwo();
+        System.out.printf("p1: %d\n", p1);
+        System.out.printf("p2: %d\n", p2);
     }
 }
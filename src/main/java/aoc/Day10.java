@@ -1,167 +1,244 @@
 package aoc;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-interface Operation {
-    static Operation fromLine(String line) {
-        if (line.equals("noop")) {
-            return new NoOp();
-        } else {
-            String[] parts = line.split(" ");
-            if (!parts[0].equals("addx")) {
-                throw new RuntimeException("Expected 'addx', got: " + parts[0]);
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// The program compiled to (cycles, delta) pairs, and the register as a timeline:
+// ends[i] is the cycle during which instruction i finishes and values[i] the register after it.
+// The register during a cycle is a binary search instead of stepping through the program.
+// Nothing changes after compiling, so any number of threads can query the same program.
+class Program {
+    static final int NOOP_CYCLES = 1;
+    static final int ADDX_CYCLES = 2;
+    static final long INITIAL_X = 1;
+
+    // cycles and delta of every instruction
+    final int[] code;
+    private final long[] ends;
+    private final long[] values;
+
+    Program(int[] code) {
+        if (code.length % 2 != 0) {
+            throw new IllegalArgumentException("expected (cycles, delta) pairs");
+        }
+        this.code = code;
+        this.ends = new long[code.length / 2];
+        this.values = new long[code.length / 2];
+        long cycle = 0;
+        long x = INITIAL_X;
+        for (int i = 0; i < ends.length; i++) {
+            if (code[2 * i] < 1) {
+                throw new IllegalArgumentException("an instruction takes at least one cycle: " + code[2 * i]);
             }
-            return new Add(Integer.parseInt(parts[1]));
+            cycle += code[2 * i];
+            x += code[2 * i + 1];
+            ends[i] = cycle;
+            values[i] = x;
         }
     }
 
-    int execute(int x);
+    // <line> = "noop" | "addx " INTEGER
+    static Program compile(Input input) {
+        // "noop\n" is at least five bytes per instruction
+        int[] code = new int[input.length() / 5 * 2 + 2];
+        int n = 0;
+        while (input.hasRemaining()) {
+            if (input.peek() == 'n') {
+                input.expect("noop");
+                code[n++] = NOOP_CYCLES;
+                code[n++] = 0;
+            } else {
+                input.expect("addx ");
+                code[n++] = ADDX_CYCLES;
+                code[n++] = input.readInt();
+            }
+            if (!input.atEndOfLine()) {
+                throw new RuntimeException(String.format("unexpected '%c' at %d", (char)input.peek(), input.position()));
+            }
+            input.nextLine();
+        }
+        return new Program(Arrays.copyOf(code, n));
+    }
 
-    void doWork();
+    int instructions() {
+        return ends.length;
+    }
 
-    int cycleTimeLeft();
+    // cycles until the last instruction has finished
+    long cycles() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
 
-    void reset();
-}
+    // cycle during which the instruction finishes
+    long end(int instruction) {
+        return ends[instruction];
+    }
 
-class NoOp implements Operation {
-    private int timeLeft = 1;
-    public int cycleTimeLeft() {
-        return timeLeft;
+    // register once the first instructions have finished
+    long xAfter(int finished) {
+        return finished == 0 ? INITIAL_X : values[finished - 1];
     }
 
-    public int execute(int x) {
-        return x;
+    // number of instructions finished at the end of the cycle
+    int finishedBy(long cycle) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] <= cycle) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
-    public void doWork() {
-        if (timeLeft == 0) throw new IllegalStateException();
-        timeLeft -= 1;
+    // register during the cycle (the first is 1), the last value once the program has finished
+    long x(long cycle) {
+        if (cycle < 1) {
+            throw new IllegalArgumentException("cycles start at 1: " + cycle);
+        }
+        return xAfter(finishedBy(cycle - 1));
     }
 
-    public void reset() {
-        timeLeft = 1;
+    // sum of cycle * x over the samples in any order, samples after the last cycle don't count
+    long signalStrength(long... samples) {
+        long sum = 0;
+        for (long cycle : samples) {
+            if (cycle <= cycles()) {
+                sum += cycle * x(cycle);
+            }
+        }
+        return sum;
     }
-}
 
-class Add implements Operation {
-    private final int value;
-    private int timeLeft;
+    // samples first, first + step, ... up to last, walking the timeline once instead of a search per sample
+    long signalStrength(long first, long step, long last) {
+        if (first < 1 || step < 1) {
+            throw new IllegalArgumentException("expected samples from cycle 1 on, with a step of at least 1");
+        }
+        last = Math.min(last, cycles());
+        long sum = 0;
+        int finished = 0;
+        for (long cycle = first; cycle <= last; cycle += step) {
+            while (finished < ends.length && ends[finished] <= cycle - 1) {
+                finished++;
+            }
+            sum += cycle * xAfter(finished);
+        }
+        return sum;
+    }
+}
 
-    Add(int value) {
-        this.value = value;
-        this.timeLeft = 2;
+// Draws screens of any size into one reusable buffer, a byte per pixel and a newline after every row,
+// so a frame is written with a single write. A frame shows the pixels drawn during width * height consecutive
+// cycles, the register comes from walking the timeline along with the pixels. Once the program has finished
+// the register keeps its last value.
+class Crt {
+    static private final byte LIT = '#';
+    static private final byte DARK = '.';
+
+    final int width;
+    final int height;
+    // the frame followed by the blank line separating frames in a sequence
+    private final byte[] frame;
+
+    Crt(int width, int height) {
+        if (width < 1 || height < 1 || (long)(width + 1) * height >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("invalid screen of %dx%d", width, height));
+        }
+        this.width = width;
+        this.height = height;
+        this.frame = new byte[(width + 1) * height + 1];
+        frame[frame.length - 1] = '\n';
     }
-    public int cycleTimeLeft() {
-        return timeLeft;
+
+    int frameLength() {
+        return frame.length - 1;
     }
 
-    public void doWork() {
-        if (timeLeft == 0) throw new IllegalStateException();
-        timeLeft -= 1;
+    long frameCycles() {
+        return (long)width * height;
     }
 
-    public int execute(int x) {
-        return x + value;
+    // the frame drawn from the cycle on (the first is 1), valid until the next render
+    byte[] render(Program program, long first) {
+        int finished = program.finishedBy(first - 1);
+        long cycle = first;
+        int i = 0;
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                while (finished < program.instructions() && program.end(finished) <= cycle - 1) {
+                    finished++;
+                }
+                frame[i++] = Math.abs(column - program.xAfter(finished)) <= 1 ? LIT : DARK;
+                cycle++;
+            }
+            frame[i++] = '\n';
+        }
+        return frame;
     }
 
-    public void reset() {
-        timeLeft = 2;
+    void write(Program program, long first, OutputStream out) throws IOException {
+        out.write(render(program, first), 0, frameLength());
+        out.flush();
     }
-}
 
-public class Day10 {
-    ArrayList<Operation> ops;
-    int x = 1; // register
-    int nextOp = 0;
-
-    Day10(String filename) {
-        try (Stream<String> lines = Files.lines(Paths.get(filename))) {
-            this.ops = lines.map(Operation::fromLine).collect(Collectors.toCollection(ArrayList::new));
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+    // every frame until the program has finished, separated by blank lines
+    void writeAll(Program program, OutputStream out) throws IOException {
+        for (long first = 1; first <= Math.max(1, program.cycles()); first += frameCycles()) {
+            out.write(render(program, first));
         }
+        out.flush();
     }
+}
 
-    public static void main(String[] args) {
-        String filename = "inputs/10.txt";
-        int p1 = new Day10(filename).partOne();
-        System.out.printf("-- Part 1 --\n%d\n", p1);
-        System.out.println("-- Part 2 --");
-        new Day10(filename).partTwo();
+public class Day10 implements Solver {
+    static private final int FIRST_SAMPLE = 20;
+    static private final int SAMPLE_STEP = 40;
+    static private final int LAST_SAMPLE = 220;
+    static private final int WIDTH = 40;
+    static private final int HEIGHT = 6;
+
+    Program program;
+
+    public Day10(String filename) throws IOException {
+        this.program = Program.compile(Input.map(filename));
     }
 
-    Operation nextOperation() {
-        if (nextOp == ops.size()) {
-            return null;
-        }
-        Operation op = ops.get(nextOp);
-        nextOp += 1;
-        return op;
-    }
-
-    void reset() {
-        x = 1;
-        nextOp = 0;
-        ops.forEach(Operation::reset);
-    }
-
-    int partOne() {
-        int sum = 0;
-        HashSet<Integer> cycles = new HashSet<>() {{
-            add(20);
-            add(60);
-            add(100);
-            add(140);
-            add(180);
-            add(220);
-        }};
-        reset();
-        Operation current = nextOperation();
-        for (int i = 1; i <= 240; i++) {
-            if (cycles.contains(i)) {
-                int signalStrength = x * i;
-                sum += signalStrength;
-            }
-            current.doWork();
-            if (current.cycleTimeLeft() == 0) {
-                x = current.execute(x);
-                current = nextOperation();
-                if (current == null) break;
+    // usage: Day10 [FILE [CYCLE]...], prints the register during the cycles
+    //        Day10 --frames FILE [WIDTH HEIGHT], prints every frame until the program has finished
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--frames")) {
+            if (args.length != 2 && args.length != 4) {
+                throw new IllegalArgumentException("usage: Day10 --frames FILE [WIDTH HEIGHT]");
             }
+            Day10 day10 = new Day10(args[1]);
+            Crt crt = args.length == 4 ? new Crt(Integer.parseInt(args[2]), Integer.parseInt(args[3])) : new Crt(WIDTH, HEIGHT);
+            crt.writeAll(day10.program, System.out);
+            return;
+        }
+        String filename = args.length > 0 ? args[0] : "inputs/10.txt";
+        Day10 day10 = new Day10(filename);
+        long p1 = day10.partOne();
+        System.out.printf("-- Part 1 --\n%d\n", p1);
+        System.out.println("-- Part 2 --");
+        System.out.print(day10.partTwo());
+        for (int i = 1; i < args.length; i++) {
+            long cycle = Long.parseLong(args[i]);
+            System.out.printf("cycle %d: x = %d\n", cycle, day10.program.x(cycle));
         }
-        return sum;
     }
 
-    void drawPixel(int position) {
-        if (Math.abs(position - x) <= 1) {
-            System.out.print("#");
-        } else {
-            System.out.print(".");
-        }
+    public Long partOne() {
+        return program.signalStrength(FIRST_SAMPLE, SAMPLE_STEP, LAST_SAMPLE);
     }
 
-    void partTwo() {
-        reset();
-        Operation current = nextOperation();
-        for (int i = 0; i < 240; i++) {
-            if (i != 0 && i % 40 == 0) {
-                System.out.println();
-            }
-            drawPixel(i % 40);
-            current.doWork();
-            if (current.cycleTimeLeft() == 0) {
-                x = current.execute(x);
-                current = nextOperation();
-                if (current == null) break;
-            }
-        }
+    public String partTwo() {
+        Crt crt = new Crt(WIDTH, HEIGHT);
+        return new String(crt.render(program, 1), 0, crt.frameLength(), StandardCharsets.US_ASCII);
     }
 }
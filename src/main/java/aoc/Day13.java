@@ -143,10 +143,10 @@ class PacketInt implements Packet {
     }
 }
 
-public class Day13 {
+public class Day13 implements Solver {
     // nested list is always of size 2
     List<List<Packet>> packets;
-    Day13(String filename) throws IOException {
+    public Day13(String filename) throws IOException {
         String[] pairs = Files.readString(Paths.get(filename)).split("\n\n");
         this.packets = Arrays.stream(pairs).map(p ->
             Arrays.stream(p.split("\n"))
@@ -164,7 +164,7 @@ public class Day13 {
         System.out.println(p2);
     }
 
-    int partOne() {
+    public Integer partOne() {
         int sum = 0;
         for (int i = 0; i < packets.size(); i++) {
             List<Packet> pair = packets.get(i);
@@ -176,11 +176,13 @@ public class Day13 {
         return sum;
     }
 
-    int partTwo() {
+    public Integer partTwo() {
         Packet a = new Parser("[[2]]").parse();
         Packet b = new Parser("[[6]]").parse();
-        packets.add(new ArrayList<>() {{ add(a); add(b); }});
-        List<Packet> sorted = packets.stream().flatMap(List::stream).sorted().collect(Collectors.toCollection(ArrayList::new));
+        List<Packet> sorted = packets.stream().flatMap(List::stream).collect(Collectors.toCollection(ArrayList::new));
+        sorted.add(a);
+        sorted.add(b);
+        sorted.sort(Packet::compareTo);
 
         // index starts at 1
         int sortedA = sorted.indexOf(a) + 1;
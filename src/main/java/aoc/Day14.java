@@ -1,31 +1,33 @@
 package aoc;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.*;
 
 class Rock {
     List<Point> turns = new ArrayList<>();
     int largestX = 0;
     int largestY = 0;
 
-    static Rock fromLine(String line) {
+    // <line> = <point> (" -> " <point>)*
+    // <point> = INTEGER "," INTEGER
+    static Rock read(Input input) {
         Rock rock = new Rock();
-        Matcher matcher = Pattern.compile("(\\d+),(\\d+)").matcher(line);
-        while (matcher.find()) {
-            int x = Integer.parseInt(matcher.group(1));
-            int y = Integer.parseInt(matcher.group(2));
-            rock.addPoint(new Point(x, y));
+        rock.addPoint(readPoint(input));
+        while (!input.atEndOfLine()) {
+            input.expect(" -> ");
+            rock.addPoint(readPoint(input));
         }
+        input.nextLine();
         return rock;
     }
 
+    static Point readPoint(Input input) {
+        int x = input.readInt();
+        input.expect(',');
+        return new Point(x, input.readInt());
+    }
+
     void addPoint(Point point) {
         largestX = Math.max(point.x, largestX);
         largestY = Math.max(point.y, largestY);
@@ -56,89 +58,77 @@ class Rock {
     }
 }
 
-public class Day14 {
-    enum FillType {
-        Sand,
-        Rock,
-        Empty
-    }
+public class Day14 implements Solver {
+    static private final byte EMPTY = '.';
+    static private final byte ROCK = '#';
+    static private final byte SAND = 'o';
+    static private final int SOURCE_X = 500;
     int width;
     int height;
-    HashMap<Point, FillType> grid = new HashMap<>();
-    Day14(String filename) throws IOException {
-        try (Stream<String> lines = Files.lines(Paths.get(filename))) {
-            List<Rock> rocks = lines.map(Rock::fromLine).collect(Collectors.toCollection(ArrayList::new));
-            width = rocks.stream().map(Rock::getLargestX).max(Integer::compare).get() + 1;
-            height = rocks.stream().map(Rock::getLargestY).max(Integer::compare).get() + 1;
-            rocks.stream().flatMap(rock -> rock.getAllPoints().stream()).forEach(point -> setType(point, FillType.Rock));
+    // sand spreads at most one column per row, so the grid spans every x the sand can reach before the floor
+    // column 0 of the grid is x = left
+    ByteGrid grid;
+    int left;
+    // sand reaching this index has fallen past the lowest rock
+    private int limit;
+
+    public Day14(String filename) throws IOException {
+        List<Rock> rocks = new ArrayList<>();
+        Input input = Input.map(filename);
+        while (input.hasRemaining()) {
+            rocks.add(Rock.read(input));
         }
+        width = rocks.stream().map(Rock::getLargestX).max(Integer::compare).get() + 1;
+        height = rocks.stream().map(Rock::getLargestY).max(Integer::compare).get() + 1;
+        left = Math.min(0, SOURCE_X - height - 2);
+        int right = Math.max(width, SOURCE_X + height + 3);
+        // one row for the floor, one border cell so the sand can look past the edge
+        grid = new ByteGrid(right - left, height + 2, 1, EMPTY);
+        rocks.stream().flatMap(rock -> rock.getAllPoints().stream()).forEach(point -> grid.set(point.x - left, point.y, ROCK));
     }
 
-    private boolean partTwo = false;
-
-    void setPartTwo() {
-        resetSand();
-        height += 2;
-        partTwo = true;
-    }
-
-    void resetSand() {
-        grid.entrySet().forEach(entry -> {
-            if (entry.getValue() == FillType.Sand) {
-                entry.setValue(FillType.Empty);
-            }
-        });
-    }
-
-    boolean isInBounds(Point point) {
-        if (partTwo) {
-            return point.y < height;
-        } else {
-            return point.x >= 0 && point.y >= 0 && point.x < width && point.y < height;
-        }
+    // the floor is two rows below the lowest rock
+    void setPartTwo(boolean partTwo) {
+        grid.replace(SAND, EMPTY);
+        grid.fillRow(height + 1, partTwo ? ROCK : EMPTY);
+        limit = partTwo ? grid.length() : grid.index(-grid.padding, height);
     }
 
-    FillType getType(Point point) {
-        if (partTwo && point.y == height - 1) {
-            return FillType.Rock;
-        }
-        return grid.getOrDefault(point, FillType.Empty);
-    }
-
-    void setType(Point point, FillType type) {
-        grid.put(point, type);
-    }
-
-    boolean isBlocked(Point point) {
-        return getType(point) != FillType.Empty;
-    }
-
-    boolean introduceSand(Point position) {
-        if (isBlocked(position)) {
+    boolean introduceSand(int x, int y) {
+        int index = grid.index(x - left, y);
+        if (grid.get(index) != EMPTY) {
             return false;
         }
-        Point deltaDown = new Point(0, 1);
-        Point deltaLeft = new Point(-1, 1);
-        Point deltaRight = new Point(1, 1);
-        while (isInBounds(position)) {
-            if (!isBlocked(position.add(deltaDown))) {
-                position = position.add(deltaDown);
-            } else if (!isBlocked(position.add(deltaLeft))) {
-                position = position.add(deltaLeft);
-            } else if (!isBlocked(position.add(deltaRight))) {
-                position = position.add(deltaRight);
+        int down = grid.stride;
+        while (index < limit) {
+            if (grid.get(index + down) == EMPTY) {
+                index += down;
+            } else if (grid.get(index + down - 1) == EMPTY) {
+                index += down - 1;
+            } else if (grid.get(index + down + 1) == EMPTY) {
+                index += down + 1;
             } else {
-                setType(position, FillType.Sand);
+                grid.set(index, SAND);
                 return true;
             }
         }
         return false;
     }
 
-    int partOne() {
+    public Integer partOne() {
+        setPartTwo(false);
+        return pourSand();
+    }
+
+    public Integer partTwo() {
+        setPartTwo(true);
+        return pourSand();
+    }
+
+    int pourSand() {
         int numSand = 0;
         for (int i = 0; i < Integer.MAX_VALUE; i++) {
-            if (!introduceSand(new Point(500, 0))) {
+            if (!introduceSand(SOURCE_X, 0)) {
                 break;
             }
             numSand++;
@@ -146,16 +136,11 @@ public class Day14 {
         return numSand;
     }
 
-    int partTwo() {
-        return partOne();
-    }
-
     public static void main(String[] args) throws IOException {
         String filename = "inputs/14.txt";
         Day14 solver = new Day14(filename);
         int p1 = solver.partOne();
         System.out.printf("p1: %d\n", p1);
-        solver.setPartTwo();
         int p2 = solver.partTwo();
         System.out.printf("p2: %d\n", p2);
     }
@@ -3,15 +3,11 @@ package aoc;
 // Sensor at x=2, y=18: closest beacon is at x=-2, y=15
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 class Range {
     int start;
@@ -77,16 +73,10 @@ class Sensor {
         this.distance = position.manhattanDistance(closestBeacon);
     }
 
-    static Sensor fromLine(String line) {
-        Matcher matcher = Pattern.compile("x=(-?\\d+), y=(-?\\d+)").matcher(line);
-        if (!matcher.find()) {
-            throw new RuntimeException("didn't find first position");
-        }
-        Point position = new Point(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
-        if (!matcher.find()) {
-            throw new RuntimeException("didn't find second position");
-        }
-        Point beacon = new Point(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    static Sensor read(Input input) {
+        Point position = new Point(input.nextInt(), input.nextInt());
+        Point beacon = new Point(input.nextInt(), input.nextInt());
+        input.nextLine();
         return new Sensor(position, beacon);
     }
 
@@ -120,15 +110,17 @@ class Sensor {
     }
 }
 
-public class Day15 {
+public class Day15 implements Solver {
     List<Sensor> sensors;
-    Day15(String filename) throws IOException {
-        try (Stream<String> lines = Files.lines(Paths.get(filename))) {
-            this.sensors = lines.map(Sensor::fromLine).collect(Collectors.toCollection(ArrayList::new));
+    public Day15(String filename) throws IOException {
+        this.sensors = new ArrayList<>();
+        Input input = Input.map(filename);
+        while (input.hasRemaining()) {
+            sensors.add(Sensor.read(input));
         }
     }
 
-    int partOne() {
+    public Integer partOne() {
         Set<Point> set = sensors.stream().flatMap(sensor -> sensor.emptyPointsOnRow().stream()).collect(Collectors.toSet());
         return set.size();
     }
@@ -153,21 +145,28 @@ public class Day15 {
         return uncovered;
     }
 
-    long partTwo() {
-        Range range = new Range(0, MAX_VALUES + 1);
-        for (int y = 0; y <= MAX_VALUES; y++) {
-            final int line = y;
-            ArrayList<Range> ranges = sensors.stream().map(sensor -> sensor.rangeOnLine(line)).collect(Collectors.toCollection(ArrayList::new));
-            List<Range> uncovered = coversRange(ranges, range);
-            if (uncovered.size() != 0) {
-                Range r = uncovered.get(0);
-                long x = r.start;
-                System.out.printf("(%d, %d)\n", x, y);
-                return x * (long)FORTY_MILLION + (long)y;
-            }
+    // -1 if the line is fully covered
+    long tuningFrequency(Range range, int line) {
+        ArrayList<Range> ranges = sensors.stream().map(sensor -> sensor.rangeOnLine(line)).collect(Collectors.toCollection(ArrayList::new));
+        List<Range> uncovered = coversRange(ranges, range);
+        if (uncovered.size() != 0) {
+            Range r = uncovered.get(0);
+            long x = r.start;
+            return x * (long)FORTY_MILLION + (long)line;
         }
         return -1;
     }
+
+    // lines are independent so they are searched with a parallel stream
+    public Long partTwo() {
+        Range range = new Range(0, MAX_VALUES + 1);
+        return IntStream.rangeClosed(0, MAX_VALUES)
+                .parallel()
+                .mapToLong(line -> tuningFrequency(range, line))
+                .filter(frequency -> frequency != -1)
+                .findFirst()
+                .orElse(-1);
+    }
     public static void main(String[] args) throws IOException {
         String filename = "inputs/15.txt";
         Day15 solver = new Day15(filename);
@@ -1,16 +1,13 @@
 package aoc;
 
+import aoc.metrics.CounterEvent;
 
 import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.InaccessibleObjectException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 class Valve {
     int flowRate;
@@ -26,23 +23,49 @@ class Valve {
         distances.put(id, 0);
     }
 
-    // Valve HH has flow rate=12; tunnels lead to valves RQ, NL, ZQ
-    static Valve fromLine(String line) {
-        Matcher matcher = Pattern.compile("Valve ([A-Z]{2}) has flow rate=(\\d+); tunnels? leads? to valves? (.*$)").matcher(line);
-        if (!matcher.find()) {
-            throw new RuntimeException(String.format("no match on %s", line));
+    // ids are two capital letters, packed into an int they index a shared table of names
+    static private final String[] NAMES = new String[26 * 26];
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            NAMES[i] = String.valueOf(new char[] { (char)('A' + i / 26), (char)('A' + i % 26) });
         }
+    }
 
-        String id = matcher.group(1);
-        int flowRate = Integer.parseInt(matcher.group(2));
-        matcher = Pattern.compile("([A-Z]{2})").matcher(matcher.group(3));
+    // Valve HH has flow rate=12; tunnels lead to valves RQ, NL, ZQ
+    // <line> = "Valve " ID " has flow rate=" INTEGER "; tunnel" ["s"] " lead" ["s"] " to valve" ["s"] " " ID (", " ID)*
+    static Valve read(Input input) {
+        input.expect("Valve ");
+        String id = readId(input);
+        input.expect(" has flow rate=");
+        int flowRate = input.readInt();
+        input.expect("; tunnel");
+        input.accept('s');
+        input.expect(" lead");
+        input.accept('s');
+        input.expect(" to valve");
+        input.accept('s');
+        input.expect(' ');
         ArrayList<String> connections = new ArrayList<>();
-        while (matcher.find()) {
-            connections.add(matcher.group(1));
+        connections.add(readId(input));
+        while (input.accept(',')) {
+            input.expect(' ');
+            connections.add(readId(input));
         }
+        input.nextLine();
         return new Valve(id, flowRate, connections);
     }
 
+    static String readId(Input input) {
+        int start = input.position();
+        int first = input.next() - 'A';
+        int second = input.next() - 'A';
+        if (first < 0 || first >= 26 || second < 0 || second >= 26) {
+            throw new RuntimeException(String.format("expected a valve id at %d", start));
+        }
+        return NAMES[first * 26 + second];
+    }
+
     public ArrayList<String> getConnections() {
         return this.connections;
     }
@@ -266,48 +289,73 @@ class CaveState {
     }
 }
 
-public class Day16 {
+public class Day16 implements Solver {
 
     Map<String, Valve> graph;
 
-    Day16(String filename) throws IOException {
-        try (Stream<String> lines = Files.lines(Paths.get(filename))) {
-            this.graph = lines.map(Valve::fromLine).collect(Collectors.toMap(Valve::getId, valve -> valve));
-            graph.entrySet().stream().forEach(entry -> {
-                entry.getValue().computeDistances(graph);
-            });
+    public Day16(String filename) throws IOException {
+        this.graph = new HashMap<>();
+        Input input = Input.map(filename);
+        while (input.hasRemaining()) {
+            Valve valve = Valve.read(input);
+            if (graph.putIfAbsent(valve.getId(), valve) != null) {
+                throw new RuntimeException(String.format("valve %s appears twice", valve.getId()));
+            }
         }
+        graph.entrySet().stream().forEach(entry -> {
+            entry.getValue().computeDistances(graph);
+        });
     }
 
-    int partOne() {
-        Stack<State> states = new Stack<>(){{ add(State.initialState(graph, 30)); }};
+    static int bestPressure(State initial, LongAdder expanded) {
+        Stack<State> states = new Stack<>(){{ add(initial); }};
         State bestSoFar = null;
+        long count = 0;
         while (!states.isEmpty()) {
             State next = states.pop();
+            count++;
             if (bestSoFar == null || next.getPressure() > bestSoFar.getPressure()) {
                 bestSoFar = next;
             }
             states.addAll(next.expand());
         }
+        expanded.add(count);
         return bestSoFar.getPressure();
     }
 
-    int partTwo() {
-        Stack<CaveState> states = new Stack<>(){{
-            add(new CaveState(graph, 26));
-        }};
+    static int bestPressure(CaveState initial, LongAdder expanded) {
+        Stack<CaveState> states = new Stack<>(){{ add(initial); }};
         CaveState bestSoFar = null;
+        long count = 0;
         while (!states.isEmpty()) {
             CaveState next = states.pop();
+            count++;
             if (bestSoFar == null || next.getPressure() > bestSoFar.getPressure()) {
                 bestSoFar = next;
-                System.out.println(bestSoFar.getPressure());
             }
             states.addAll(next.expand());
         }
+        expanded.add(count);
         return bestSoFar.getPressure();
     }
 
+    // the subtrees below the first choice are independent so they are searched with a parallel stream
+    public Integer partOne() {
+        State initial = State.initialState(graph, 30);
+        LongAdder expanded = new LongAdder();
+        int best = initial.expand().parallelStream().mapToInt(state -> bestPressure(state, expanded)).max().orElse(0);
+        CounterEvent.emit(16, "statesExpanded", expanded.sum());
+        return Math.max(initial.getPressure(), best);
+    }
+
+    public Integer partTwo() {
+        CaveState initial = new CaveState(graph, 26);
+        LongAdder expanded = new LongAdder();
+        int best = initial.expand().parallelStream().mapToInt(state -> bestPressure(state, expanded)).max().orElse(0);
+        CounterEvent.emit(16, "statesExpanded", expanded.sum());
+        return Math.max(initial.getPressure(), best);
+    }
+
     public static void main(String[] args) throws IOException {
         String filename = "inputs/16.txt";
         Day16 solver = new Day16(filename);
@@ -0,0 +1,218 @@
+package aoc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Puzzle input mapped into memory with a cursor over its bytes.
+// Numbers are parsed in place, only readLine and text allocate.
+// Lines end at '\n', records (like the elves of day 1 or the monkeys of day 11) are separated by an empty line.
+public class Input {
+    private final ByteBuffer buffer;
+    private final int length;
+    private int position = 0;
+
+    public Input(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.length = buffer.limit();
+    }
+
+    public static Input map(String filename) throws IOException {
+        return map(Paths.get(filename));
+    }
+
+    // the mapping stays valid after the channel is closed
+    public static Input map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("%s is too large to map: %d bytes", path, size));
+            }
+            return new Input(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public static Input of(String content) {
+        return new Input(ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public void position(int position) {
+        this.position = position;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean hasRemaining() {
+        return position < length;
+    }
+
+    public byte get(int index) {
+        return buffer.get(index);
+    }
+
+    // current byte without consuming it, 0 at the end of the input
+    public byte peek() {
+        return position < length ? buffer.get(position) : 0;
+    }
+
+    public byte next() {
+        if (position >= length) {
+            throw new RuntimeException("unexpected end of input");
+        }
+        return buffer.get(position++);
+    }
+
+    public void skip(int n) {
+        position = Math.min(length, position + n);
+    }
+
+    // consumes ch if it is the current byte
+    public boolean accept(char ch) {
+        if (position < length && buffer.get(position) == ch) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    public void expect(char ch) {
+        if (!accept(ch)) {
+            throw new RuntimeException(String.format("expected '%c' at %d", ch, position));
+        }
+    }
+
+    public void expect(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            expect(literal.charAt(i));
+        }
+    }
+
+    // moves past the next occurrence of ch, or to the end of the input
+    public void skipPast(char ch) {
+        while (position < length && buffer.get(position++) != ch) {
+        }
+    }
+
+    public boolean atEndOfLine() {
+        return position >= length || buffer.get(position) == '\n';
+    }
+
+    // index of the '\n' ending the current line, or the end of the input
+    public int lineEnd() {
+        int end = position;
+        while (end < length && buffer.get(end) != '\n') {
+            end++;
+        }
+        return end;
+    }
+
+    // moves to the start of the next line, returns false at the end of the input
+    public boolean nextLine() {
+        skipPast('\n');
+        return hasRemaining();
+    }
+
+    // an empty line, or the end of the input
+    public boolean atEndOfRecord() {
+        return atEndOfLine();
+    }
+
+    // moves past the empty lines separating two records, returns false at the end of the input
+    public boolean nextRecord() {
+        while (position < length && buffer.get(position) == '\n') {
+            position++;
+        }
+        return hasRemaining();
+    }
+
+    public String readLine() {
+        int end = lineEnd();
+        String line = text(position, end);
+        position = Math.min(length, end + 1);
+        return line;
+    }
+
+    public String text(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    static boolean isDigit(byte ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    // parses the number at the cursor, a leading '-' is its sign
+    // the digits are accumulated as a negative value so Long.MIN_VALUE fits as well
+    public long readLong() {
+        int start = position;
+        boolean negative = accept('-');
+        if (position >= length || !isDigit(buffer.get(position))) {
+            throw new RuntimeException(String.format("expected a number at %d", position));
+        }
+        long value = 0;
+        try {
+            while (position < length) {
+                byte ch = buffer.get(position);
+                if (!isDigit(ch)) {
+                    break;
+                }
+                value = Math.subtractExact(Math.multiplyExact(value, 10), ch - '0');
+                position++;
+            }
+            return negative ? value : Math.negateExact(value);
+        } catch (ArithmeticException e) {
+            throw new RuntimeException(String.format("number out of range at %d", start));
+        }
+    }
+
+    public int readInt() {
+        int start = position;
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new RuntimeException(String.format("number out of range at %d", start));
+        }
+        return (int)value;
+    }
+
+    // moves to the start of the next number on the current line, a '-' directly before a digit is included as sign
+    // returns false and stays at the end of the line if there is none
+    public boolean skipToNumberOnLine() {
+        while (position < length) {
+            byte ch = buffer.get(position);
+            if (ch == '\n') {
+                return false;
+            }
+            if (isDigit(ch) || (ch == '-' && position + 1 < length && isDigit(buffer.get(position + 1)))) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    // the next number on the current line, skipping anything in front of it
+    public long nextLong() {
+        if (!skipToNumberOnLine()) {
+            throw new RuntimeException(String.format("expected a number before the end of the line at %d", position));
+        }
+        return readLong();
+    }
+
+    public int nextInt() {
+        if (!skipToNumberOnLine()) {
+            throw new RuntimeException(String.format("expected a number before the end of the line at %d", position));
+        }
+        return readInt();
+    }
+}
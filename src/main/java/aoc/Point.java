@@ -14,6 +14,27 @@ public class Point {
         this.y = other.y;
     }
 
+    // x in the upper and y in the lower 32 bits, used as key by PointSet and PointMap
+    public static long pack(int x, int y) {
+        return ((long)x << 32) | (y & 0xffffffffL);
+    }
+
+    public static int unpackX(long packed) {
+        return (int)(packed >> 32);
+    }
+
+    public static int unpackY(long packed) {
+        return (int)packed;
+    }
+
+    public static Point unpack(long packed) {
+        return new Point(unpackX(packed), unpackY(packed));
+    }
+
+    public long pack() {
+        return pack(x, y);
+    }
+
     public int manhattanDistance(Point other) {
         return Math.abs(this.x - other.x) + Math.abs(this.y - other.y);
     }
@@ -0,0 +1,121 @@
+package aoc;
+
+import java.util.Arrays;
+
+// Map from points packed into a long (see Point.pack) to long values.
+// Same open addressing layout as PointSet, with the values in a parallel array.
+// Iterate over the slots:
+//     for (int slot = map.nextSlot(0); slot != -1; slot = map.nextSlot(slot + 1)) { map.keyAt(slot), map.valueAt(slot) }
+public class PointMap {
+    private static final long EMPTY = PointSet.EMPTY;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    public PointMap() {
+        this(16);
+    }
+
+    public PointMap(int expectedSize) {
+        allocate(PointSet.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private int slotOf(long key) {
+        int slot = PointSet.mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public void put(int x, int y, long value) {
+        put(Point.pack(x, y), value);
+    }
+
+    public void put(long key, long value) {
+        PointSet.checkKey(key);
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size += 1;
+        if (size > keys.length * PointSet.LOAD_FACTOR) {
+            rehash(PointSet.grow(keys.length));
+        }
+    }
+
+    public long get(int x, int y, long missing) {
+        return get(Point.pack(x, y), missing);
+    }
+
+    public long get(long key, long missing) {
+        if (key == EMPTY) {
+            return missing;
+        }
+        int slot = slotOf(key);
+        return keys[slot] == key ? values[slot] : missing;
+    }
+
+    public boolean containsKey(int x, int y) {
+        return containsKey(Point.pack(x, y));
+    }
+
+    public boolean containsKey(long key) {
+        return key != EMPTY && keys[slotOf(key)] == key;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public int nextSlot(int slot) {
+        for (; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public long valueAt(int slot) {
+        return values[slot];
+    }
+
+    public void setValueAt(int slot, long value) {
+        values[slot] = value;
+    }
+}
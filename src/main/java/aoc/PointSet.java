@@ -0,0 +1,168 @@
+package aoc;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Set of points packed into a long (see Point.pack).
+// Open addressing with linear probing: no object per entry and no boxing.
+// Iterate with forEach or over the slots:
+//     for (int slot = set.nextSlot(0); slot != -1; slot = set.nextSlot(slot + 1)) { set.keyAt(slot) }
+public class PointSet {
+    // (MIN_VALUE, MIN_VALUE) marks an empty slot and cannot be stored
+    static final long EMPTY = Point.pack(Integer.MIN_VALUE, Integer.MIN_VALUE);
+    static final double LOAD_FACTOR = 0.5;
+    // largest power of two an int array index reaches
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+
+    public PointSet() {
+        this(16);
+    }
+
+    public PointSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public PointSet(PointSet other) {
+        this.keys = other.keys.clone();
+        this.mask = other.mask;
+        this.size = other.size;
+    }
+
+    static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity = grow(capacity);
+        }
+        return capacity;
+    }
+
+    static int grow(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException(String.format("more than %d points", (int)(MAX_CAPACITY * LOAD_FACTOR)));
+        }
+        return capacity << 1;
+    }
+
+    // murmur3 finalizer, neighbouring points end up in unrelated slots
+    static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int)key;
+    }
+
+    static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("point (MIN_VALUE, MIN_VALUE) cannot be stored");
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    // slot of key, or of the empty slot where it would be inserted
+    private int slotOf(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public boolean add(int x, int y) {
+        return add(Point.pack(x, y));
+    }
+
+    // returns false if the point was already present
+    public boolean add(long key) {
+        checkKey(key);
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            return false;
+        }
+        keys[slot] = key;
+        size += 1;
+        if (size > keys.length * LOAD_FACTOR) {
+            rehash(grow(keys.length));
+        }
+        return true;
+    }
+
+    public boolean contains(int x, int y) {
+        return contains(Point.pack(x, y));
+    }
+
+    public boolean contains(Point point) {
+        return contains(point.x, point.y);
+    }
+
+    // the empty marker would match any empty slot
+    public boolean contains(long key) {
+        return key != EMPTY && keys[slotOf(key)] == key;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != EMPTY) {
+                keys[slotOf(key)] = key;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    // first occupied slot at or after slot, -1 if there is none
+    public int nextSlot(int slot) {
+        for (; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public void forEach(LongConsumer consumer) {
+        for (long key : keys) {
+            if (key != EMPTY) {
+                consumer.accept(key);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size];
+        int i = 0;
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,10 @@
+package aoc;
+
+// A parsed puzzle input. Parsing happens in the constructor of each day,
+// the parts only compute their answer and can be called any number of times.
+public interface Solver {
+    Object partOne();
+
+    // null if the day has no (implemented) second part
+    Object partTwo();
+}
@@ -1,258 +1,252 @@
 package aoc.day11;
 
+import aoc.Solver;
+
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 import java.util.stream.Collectors;
-
-interface Operation {
-    static Operation operationFactory(String s) {
-        if (s.equals("+")) {
-            return new Add();
-        } else if (s.equals("*")) {
-            return new Multiply();
-        } else {
-            throw new IllegalArgumentException();
+import java.util.stream.IntStream;
+
+// Every item moves between the monkeys on its own: its worry level only depends on the monkeys it visits,
+// and a monkey counts its inspections whatever the order of the items. So every item is followed through
+// all rounds as an independent task, and the counts per monkey are summed at the end.
+// During a round an item goes from monkey to monkey while it's thrown to a monkey after the current one,
+// a monkey before it only gets its turn in the next round.
+// The monkeys are flattened into arrays, with a modulo their operations are reduced so none overflows below it.
+// With a modulo an item has finitely many states (monkey, worry level) at the start of a round, so it ends up
+// in a cycle: the rounds before the cycle and one pass of the cycle are simulated, and the counts of the cycle
+// multiplied by the number of times it repeats. That answers any number of rounds in O(tail + cycle) per item.
+class Troop {
+    // with worry levels below this, the square of one still fits in a long
+    static private final long MAX_MODULO = 3037000499L;
+
+    final int size;
+    private final Expression[] operations;
+    private final long[] divisors;
+    private final int[] onTrue;
+    private final int[] onFalse;
+    // worry level and monkey holding every item at the start
+    private final long[] worries;
+    private final int[] holders;
+    // 0 means worry levels are divided by 3 after each inspection
+    private final long modulo;
+
+    Troop(List<Monkey> monkeys, long modulo) {
+        if (modulo < 0 || modulo > MAX_MODULO) {
+            throw new IllegalArgumentException("modulo out of range: " + modulo);
         }
-    }
-    long execute(Operand a, Operand b, long oldValue);
-}
-
-class Add implements Operation {
-    public long execute(Operand a, Operand b, long oldValue) {
-        return Math.addExact(a.getValue(oldValue), b.getValue(oldValue));
-    }
-
-    @Override
-    public String toString() {
-        return "+";
-    }
-}
-
-class Multiply implements Operation {
-    public long execute(Operand a, Operand b, long oldValue) {
-        return Math.multiplyExact(a.getValue(oldValue), b.getValue(oldValue));
-    }
-
-    @Override
-    public String toString() {
-        return "*";
-    }
-}
-
-interface Operand {
-    static Operand operandFactory(String x) {
-        if (x.equals("old")) {
-            return new Variable();
-        } else {
-            return new Number(Long.parseLong(x));
+        this.size = monkeys.size();
+        this.modulo = modulo;
+        operations = new Expression[size];
+        divisors = new long[size];
+        onTrue = new int[size];
+        onFalse = new int[size];
+        int items = monkeys.stream().mapToInt(monkey -> monkey.getItems().length).sum();
+        worries = new long[items];
+        holders = new int[items];
+        int item = 0;
+        for (int i = 0; i < size; i++) {
+            Monkey monkey = monkeys.get(i);
+            operations[i] = modulo == 0 ? monkey.getOperation() : monkey.getOperation().reduce(modulo);
+            divisors[i] = monkey.getDivisor();
+            onTrue[i] = monkey.getTrueMonkey();
+            onFalse[i] = monkey.getFalseMonkey();
+            for (int target : new int[] { onTrue[i], onFalse[i] }) {
+                if (target < 0 || target >= size || target == i) {
+                    throw new RuntimeException(String.format("monkey %d throws to monkey %d", i, target));
+                }
+            }
+            for (long worry : monkey.getItems()) {
+                worries[item] = modulo == 0 ? worry : worry % modulo;
+                holders[item] = i;
+                item++;
+            }
         }
     }
-    long getValue(long oldValue);
-}
-
-class Variable implements Operand {
-    public long getValue(long oldValue) {
-        return oldValue;
-    }
-
-    @Override
-    public String toString() {
-        return "old";
-    }
-}
-
-class Number implements Operand {
-    private final long n;
-    Number(long n) {
-        this.n = n;
-    }
-    public long getValue(long oldValue) {
-        return n;
-    }
 
-    @Override
-    public String toString() {
-        return Long.toString(n);
-    }
-}
-
-class Expression {
-    Operand a;
-    Operand b;
-    Operation op;
-
-    Expression(Operand a, Operand b, Operation op) {
-        this.a = a;
-        this.b = b;
-        this.op = op;
-    }
-
-    static Expression parseOperation(String line) {
-        Matcher matcher = Pattern.compile("new =\\s*(\\S+)\\s*(.)\\s*(\\S+)$").matcher(line);
-
-        if (!matcher.find()) {
-            throw new RuntimeException(String.format("no match on: %s", line));
+    long inspect(int monkey, long old) {
+        long value = operations[monkey].computeValue(old);
+        return modulo == 0 ? value / 3 : value % modulo;
+    }
+
+    // monkey in the upper and worry level in the lower 32 bits, which is enough below MAX_MODULO
+    static long pack(int monkey, long worry) {
+        return (long)monkey << 32 | worry;
+    }
+
+    // state of an item after one more round from the state, adding its inspections
+    long round(long state, long[] inspections) {
+        int monkey = (int)(state >>> 32);
+        long worry = state & 0xffffffffL;
+        int previous;
+        do {
+            inspections[monkey]++;
+            worry = inspect(monkey, worry);
+            previous = monkey;
+            monkey = worry % divisors[monkey] == 0 ? onTrue[monkey] : onFalse[monkey];
+        } while (monkey > previous);
+        return pack(monkey, worry);
+    }
+
+    // Brent's cycle detection over the states of an item at the start of every round: the rounds before the cycle
+    // and its length, or null when there's no cycle within budget rounds
+    long[] findCycle(long start, long budget) {
+        long[] ignored = new long[size];
+        long power = 1;
+        long length = 1;
+        long tortoise = start;
+        long hare = round(start, ignored);
+        for (long steps = 1; tortoise != hare; steps++) {
+            if (steps > budget) {
+                return null;
+            }
+            if (power == length) {
+                tortoise = hare;
+                power *= 2;
+                length = 0;
+            }
+            hare = round(hare, ignored);
+            length++;
         }
-
-        Operand a = Operand.operandFactory(matcher.group(1));
-        Operand b = Operand.operandFactory(matcher.group(3));
-        Operation op = Operation.operationFactory(matcher.group(2));
-        return new Expression(a, b, op);
-    }
-
-    public long computeValue(long oldValue) {
-        return op.execute(a, b, oldValue);
-    }
-
-    @Override
-    public String toString() {
-        return String.format("%s %s %s", a.toString(), op.toString(), b.toString());
-    }
-}
-
-class Monkey {
-    private final ArrayDeque<Long> items = new ArrayDeque<>();
-    private Expression operation;
-    private final long divisibleBy;
-    private final long trueMonkey;
-    private final long falseMonkey;
-    private long modulo = 1;
-    private long itemsInspected = 0;
-
-    Monkey(String[] data) {
-        parseItems(data[1]);
-        parseOperation(data[2]);
-        divisibleBy = parseNumber(data[3]);
-        trueMonkey = parseNumber(data[4]);
-        falseMonkey = parseNumber(data[5]);
-    }
-
-    void parseItems(String line) {
-        Matcher matcher = Pattern.compile("(\\d+)").matcher(line);
-        while (matcher.find()) {
-            addItem(Long.parseLong(matcher.group(1)));
+        tortoise = start;
+        hare = start;
+        for (long i = 0; i < length; i++) {
+            hare = round(hare, ignored);
         }
+        long tail = 0;
+        while (tortoise != hare) {
+            tortoise = round(tortoise, ignored);
+            hare = round(hare, ignored);
+            tail++;
+        }
+        return new long[] { tail, length };
     }
 
-    void parseOperation(String line) {
-        this.operation = Expression.parseOperation(line);
-    }
-
-    long parseNumber(String line) {
-        Matcher matcher = Pattern.compile("(\\d+)").matcher(line);
-        if (!matcher.find()) {
-            throw new RuntimeException(String.format("no match on: %s", line));
+    // adds the inspections of one item during the rounds, stepping through the rounds before and in the first cycle
+    void extrapolate(int item, long rounds, long[] inspections) {
+        long state = pack(holders[item], worries[item]);
+        long[] cycle = findCycle(state, rounds);
+        if (cycle == null || cycle[0] + cycle[1] >= rounds) {
+            follow(item, rounds, inspections);
+            return;
+        }
+        long tail = cycle[0];
+        long length = cycle[1];
+        for (long round = 0; round < tail; round++) {
+            state = round(state, inspections);
+        }
+        long[] once = new long[size];
+        for (long round = 0; round < length; round++) {
+            state = round(state, once);
+        }
+        long repeats = (rounds - tail) / length;
+        for (int monkey = 0; monkey < size; monkey++) {
+            inspections[monkey] = Math.addExact(inspections[monkey], Math.multiplyExact(once[monkey], repeats));
+        }
+        for (long round = 0; round < (rounds - tail) % length; round++) {
+            state = round(state, inspections);
         }
-        return Long.parseLong(matcher.group(0));
     }
 
-    void addItem(long x) {
-        items.add(x);
+    // adds the inspections of one item during the rounds
+    void follow(int item, long rounds, long[] inspections) {
+        int monkey = holders[item];
+        long worry = worries[item];
+        for (long round = 0; round < rounds; round++) {
+            int previous;
+            do {
+                inspections[monkey]++;
+                worry = inspect(monkey, worry);
+                previous = monkey;
+                monkey = worry % divisors[monkey] == 0 ? onTrue[monkey] : onFalse[monkey];
+            } while (monkey > previous);
+        }
     }
 
-    long peek() {
-        return items.peekFirst();
+    // inspections per monkey after the rounds
+    long[] inspections(long rounds) {
+        return IntStream.range(0, worries.length).parallel()
+                .mapToObj(item -> {
+                    long[] inspections = new long[size];
+                    if (modulo == 0) {
+                        follow(item, rounds, inspections);
+                    } else {
+                        extrapolate(item, rounds, inspections);
+                    }
+                    return inspections;
+                })
+                .reduce(new long[size], (a, b) -> {
+                    long[] sum = new long[size];
+                    Arrays.setAll(sum, i -> Math.addExact(a[i], b[i]));
+                    return sum;
+                });
     }
+}
 
-    long pop() {
-        return items.removeFirst();
-    }
+public class Day11 implements Solver {
+    static private final int PART_ONE_ROUNDS = 20;
+    static private final int PART_TWO_ROUNDS = 10000;
 
-    boolean hasItem() {
-        return !items.isEmpty();
-    }
+    ArrayList<Monkey> monkeys;
 
-    private void updateTop(long newValue) {
-        this.items.pop();
-        this.items.addFirst(newValue);
+    public Day11(String filename) throws IOException {
+        String[] input = Files.readString(Paths.get(filename)).split("\n\n");
+        monkeys = Arrays.stream(input).map(x -> x.split("\n")).map(Monkey::new).collect(Collectors.toCollection(ArrayList::new));
     }
 
-    void inspectItem() {
-        this.itemsInspected += 1;
-        long oldValue = this.peek();
-        long newValue;
-        if (modulo == 0) {
-            newValue = this.operation.computeValue(oldValue) / 3;
-        } else {
-            newValue = this.operation.computeValue(oldValue) % modulo;
+    // every test only depends on the worry level modulo its divisor, so worry levels can be kept modulo this
+    long divisorLcm() {
+        long lcm = 1;
+        for (Monkey monkey : monkeys) {
+            long divisor = monkey.getDivisor();
+            lcm = Math.multiplyExact(lcm / gcd(lcm, divisor), divisor);
         }
-        this.updateTop(newValue);
+        return lcm;
     }
 
-    private boolean test() {
-        return peek() % divisibleBy == 0;
+    static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
     }
 
-    int nextMonkey() {
-        if (test()) {
-            return (int)trueMonkey;
-        } else {
-            return (int)falseMonkey;
+    // product of the two largest counts, which overflows a long after enough rounds
+    static BigInteger monkeyBusiness(long[] inspections) {
+        long[] sorted = inspections.clone();
+        Arrays.sort(sorted);
+        if (sorted.length < 2) {
+            throw new RuntimeException("expected at least two monkeys");
         }
+        return BigInteger.valueOf(sorted[sorted.length - 1]).multiply(BigInteger.valueOf(sorted[sorted.length - 2]));
     }
 
-    long getItemsInspected() {
-        return itemsInspected;
+    // a modulo of 0 means worry levels are divided by 3 after each inspection
+    BigInteger run(long modulo, long numRounds) {
+        return monkeyBusiness(new Troop(monkeys, modulo).inspections(numRounds));
     }
 
-    public long getDivisor() {
-        return divisibleBy;
+    public Long partOne() {
+        return run(0, PART_ONE_ROUNDS).longValueExact();
     }
 
-    void setModulo(long modulo) {
-        this.modulo = modulo;
+    public Long partTwo() {
+        return run(divisorLcm(), PART_TWO_ROUNDS).longValueExact();
     }
-}
 
-public class Day11 {
-    ArrayList<Monkey> monkeys = null;
-    Day11(String filename, boolean isPartOne) {
-        try {
-            String[] input = Files.readString(Paths.get(filename)).split("\n\n");
-            monkeys = Arrays.stream(input).map(x -> x.split("\n")).map(Monkey::new).collect(Collectors.toCollection(ArrayList::new));
-            if (isPartOne) {
-                monkeys.forEach(monkey -> monkey.setModulo(0));
-            } else {
-                long modulo = monkeys.stream().map(Monkey::getDivisor).reduce((long)1, (x, y) -> x * y);
-                monkeys.forEach(monkey -> monkey.setModulo(modulo));
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+    // usage: Day11 [FILE [ROUNDS]], with ROUNDS prints the monkey business of part two after that many rounds
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "inputs/11.txt";
+        Day11 solver = new Day11(filename);
+        if (args.length > 1) {
+            long rounds = Long.parseLong(args[1]);
+            System.out.printf("%d rounds: %d\n", rounds, solver.run(solver.divisorLcm(), rounds));
+            return;
         }
-    }
-
-    void doRound() {
-        for (Monkey monkey: monkeys) {
-            while (monkey.hasItem()) {
-                monkey.inspectItem();
-                int nextMonkey = monkey.nextMonkey();
-                long item = monkey.pop();
-                monkeys.get(nextMonkey).addItem(item);
-            }
-        }
-    }
-
-    long run(int numRounds) {
-        for (int i = 0; i < numRounds; i++) {
-            doRound();
-        }
-        monkeys.sort((Monkey a, Monkey b) -> Long.compare(b.getItemsInspected(), a.getItemsInspected()));
-        return monkeys.get(0).getItemsInspected() * monkeys.get(1).getItemsInspected();
-    }
-
-    public static void main(String[] args) {
-        String filename = "inputs/11.txt";
-        Day11 a = new Day11(filename, true);
-        long p1 = a.run(20);
-        Day11 b = new Day11(filename, false);
-        long p2 = b.run(10000);
+        long p1 = solver.partOne();
+        long p2 = solver.partTwo();
         System.out.printf("p1: %d\n", p1);
         System.out.printf("p2: %d\n", p2);
     }
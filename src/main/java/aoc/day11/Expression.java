@@ -0,0 +1,154 @@
+package aoc.day11;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+interface Operation {
+    static Operation operationFactory(String s) {
+        if (s.equals("+")) {
+            return new Add();
+        } else if (s.equals("*")) {
+            return new Multiply();
+        } else {
+            throw new IllegalArgumentException();
+        }
+    }
+    long execute(Operand a, Operand b, long oldValue);
+}
+
+class Add implements Operation {
+    public long execute(Operand a, Operand b, long oldValue) {
+        return Math.addExact(a.getValue(oldValue), b.getValue(oldValue));
+    }
+
+    @Override
+    public String toString() {
+        return "+";
+    }
+}
+
+class Multiply implements Operation {
+    public long execute(Operand a, Operand b, long oldValue) {
+        return Math.multiplyExact(a.getValue(oldValue), b.getValue(oldValue));
+    }
+
+    @Override
+    public String toString() {
+        return "*";
+    }
+}
+
+interface Operand {
+    static Operand operandFactory(String x) {
+        if (x.equals("old")) {
+            return new Variable();
+        } else {
+            return new Number(Long.parseLong(x));
+        }
+    }
+    long getValue(long oldValue);
+}
+
+class Variable implements Operand {
+    public long getValue(long oldValue) {
+        return oldValue;
+    }
+
+    @Override
+    public String toString() {
+        return "old";
+    }
+}
+
+class Number implements Operand {
+    private final long n;
+    Number(long n) {
+        this.n = n;
+    }
+    public long getValue(long oldValue) {
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(n);
+    }
+}
+
+// The operation of a monkey is classified by its shape when it's parsed, so computeValue is a switch over
+// primitive arithmetic instead of calls through an Operation and two Operands (still there as interpret).
+// A lambda per shape looks like the obvious specialisation, but a loop over several monkeys makes its call site
+// megamorphic and it doesn't get inlined, see ExpressionBenchmark.
+class Expression {
+    static final int SQUARE = 0;
+    static final int DOUBLE = 1;
+    static final int MULTIPLY = 2;
+    static final int ADD = 3;
+    // no old in it at all
+    static final int CONSTANT = 4;
+
+    Operand a;
+    Operand b;
+    Operation op;
+    final int shape;
+    // the number in the expression, or its value for CONSTANT
+    final long constant;
+
+    Expression(Operand a, Operand b, Operation op) {
+        this.a = a;
+        this.b = b;
+        this.op = op;
+        boolean multiply = op instanceof Multiply;
+        if (a instanceof Variable && b instanceof Variable) {
+            shape = multiply ? SQUARE : DOUBLE;
+            constant = 0;
+        } else if (a instanceof Variable || b instanceof Variable) {
+            shape = multiply ? MULTIPLY : ADD;
+            constant = a instanceof Variable ? b.getValue(0) : a.getValue(0);
+        } else {
+            shape = CONSTANT;
+            constant = interpret(0);
+        }
+    }
+
+    // the same expression with its numbers reduced modulo the modulo, which gives the same value modulo the modulo
+    Expression reduce(long modulo) {
+        return new Expression(reduce(a, modulo), reduce(b, modulo), op);
+    }
+
+    static Operand reduce(Operand operand, long modulo) {
+        return operand instanceof Number ? new Number(operand.getValue(0) % modulo) : operand;
+    }
+
+    static Expression parseOperation(String line) {
+        Matcher matcher = Pattern.compile("new =\\s*(\\S+)\\s*(.)\\s*(\\S+)$").matcher(line);
+
+        if (!matcher.find()) {
+            throw new RuntimeException(String.format("no match on: %s", line));
+        }
+
+        Operand a = Operand.operandFactory(matcher.group(1));
+        Operand b = Operand.operandFactory(matcher.group(3));
+        Operation op = Operation.operationFactory(matcher.group(2));
+        return new Expression(a, b, op);
+    }
+
+    public long computeValue(long oldValue) {
+        return switch (shape) {
+            case SQUARE -> Math.multiplyExact(oldValue, oldValue);
+            case DOUBLE -> Math.addExact(oldValue, oldValue);
+            case MULTIPLY -> Math.multiplyExact(oldValue, constant);
+            case ADD -> Math.addExact(oldValue, constant);
+            default -> constant;
+        };
+    }
+
+    long interpret(long oldValue) {
+        return op.execute(a, b, oldValue);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s", a.toString(), op.toString(), b.toString());
+    }
+}
@@ -0,0 +1,59 @@
+package aoc.day11;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+class Monkey {
+    private final long[] items;
+    private final Expression operation;
+    private final long divisibleBy;
+    private final int trueMonkey;
+    private final int falseMonkey;
+
+    Monkey(String[] data) {
+        items = parseItems(data[1]);
+        operation = Expression.parseOperation(data[2]);
+        divisibleBy = parseNumber(data[3]);
+        trueMonkey = Math.toIntExact(parseNumber(data[4]));
+        falseMonkey = Math.toIntExact(parseNumber(data[5]));
+    }
+
+    static long[] parseItems(String line) {
+        Matcher matcher = Pattern.compile("(\\d+)").matcher(line);
+        LongStream.Builder items = LongStream.builder();
+        while (matcher.find()) {
+            items.add(Long.parseLong(matcher.group(1)));
+        }
+        return items.build().toArray();
+    }
+
+    static long parseNumber(String line) {
+        Matcher matcher = Pattern.compile("(\\d+)").matcher(line);
+        if (!matcher.find()) {
+            throw new RuntimeException(String.format("no match on: %s", line));
+        }
+        return Long.parseLong(matcher.group(0));
+    }
+
+    // worry levels of the starting items
+    long[] getItems() {
+        return items.clone();
+    }
+
+    Expression getOperation() {
+        return operation;
+    }
+
+    public long getDivisor() {
+        return divisibleBy;
+    }
+
+    int getTrueMonkey() {
+        return trueMonkey;
+    }
+
+    int getFalseMonkey() {
+        return falseMonkey;
+    }
+}
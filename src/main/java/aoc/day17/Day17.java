@@ -1,5 +1,7 @@
 package aoc.day17;
 
+import aoc.Solver;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -256,19 +258,32 @@ class Grid {
     }
 }
 
-public class Day17 {
+public class Day17 implements Solver {
+    byte[] content;
+
+    public Day17(String filename) throws IOException {
+        // the jet pattern is a single line, drop the trailing newline
+        this.content = Files.readString(Paths.get(filename)).strip().getBytes();
+    }
 
     public static void main(String[] args) throws IOException {
         String filename = "inputs/17.txt";
-        byte[] content = Files.readAllBytes(Paths.get(filename));
-        Day17 solver = new Day17();
-        long p1 = solver.partOne(content, 2022);
+        Day17 solver = new Day17(filename);
+        long p1 = solver.partOne();
         System.out.printf("P1: %d\n", p1);
 
-        long p2 = solver.partTwo(UniqueState.defaultState(content), 1000000000000L);
+        long p2 = solver.partTwo();
         System.out.println(p2);
     }
 
+    public Long partOne() {
+        return partOne(content, 2022);
+    }
+
+    public Long partTwo() {
+        return partTwo(UniqueState.defaultState(content), 1000000000000L);
+    }
+
     long partOne(byte[] content, long maxRocks) {
         UniqueState state = UniqueState.defaultState(content);
         while (state.numRocks < maxRocks) {
@@ -279,9 +294,7 @@ public class Day17 {
 
     long computeHeight(long cycleHeightChange, long cycleStart, long cycleDuration, long maxRocks, UniqueState cycleStartState) {
         long numCycles = (maxRocks - cycleStart) / cycleDuration;
-        System.out.printf("number of cycles: %d\n", numCycles);
         long remainingIterations = (maxRocks - cycleStart) % cycleDuration;
-        System.out.printf("remaining iterations in cycle: %d\n", remainingIterations);
         while (remainingIterations > 0) {
             cycleStartState = cycleStartState.next();
             remainingIterations--;
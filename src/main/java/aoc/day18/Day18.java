@@ -1,15 +1,13 @@
 package aoc.day18;
 
+import aoc.Input;
+import aoc.Solver;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-public class Day18 {
+public class Day18 implements Solver {
     static private final Point3D[] ADJACENT_DELTAS = {
             new Point3D(1, 0, 0),
             new Point3D(-1, 0, 0),
@@ -23,32 +21,34 @@ public class Day18 {
     Point3D maximumValues = null;
     private int partOneSurface = 0;
 
-    Day18(String filename) throws IOException {
-        try (Stream<String> lines = Files.lines(Paths.get(filename))) {
-            lines.map(Day18::parseLine).forEach(point -> {
-                if (points.contains(point)) {
-                    throw new RuntimeException("point already in map");
-                }
-                checkMinMax(point);
-                int numNeighbours = (int)adjacentPoints(point).stream().filter(points::contains).count();
-                this.partOneSurface += 6 - 2 * numNeighbours;
-                points.add(point);
-            });
-            this.minimumValues = this.minimumValues.add(new Point3D(-1, -1, -1));
-            this.maximumValues = this.maximumValues.add(new Point3D(1, 1, 1));
+    public Day18(String filename) throws IOException {
+        Input input = Input.map(filename);
+        while (input.hasRemaining()) {
+            Point3D point = read(input);
+            if (points.contains(point)) {
+                throw new RuntimeException("point already in map");
+            }
+            checkMinMax(point);
+            int numNeighbours = (int)adjacentPoints(point).stream().filter(points::contains).count();
+            this.partOneSurface += 6 - 2 * numNeighbours;
+            points.add(point);
         }
+        this.minimumValues = this.minimumValues.add(new Point3D(-1, -1, -1));
+        this.maximumValues = this.maximumValues.add(new Point3D(1, 1, 1));
     }
 
-    static Point3D parseLine(String line) {
-        Matcher matcher = Pattern.compile("^(-?\\d+),(-?\\d+),(-?\\d+)$").matcher(line);
-        if (!matcher.find()) {
-            throw new RuntimeException("invalid line: match not found");
+    // <line> = INTEGER "," INTEGER "," INTEGER
+    static Point3D read(Input input) {
+        int x = input.readInt();
+        input.expect(',');
+        int y = input.readInt();
+        input.expect(',');
+        int z = input.readInt();
+        if (!input.atEndOfLine()) {
+            throw new RuntimeException("invalid line: expected three coordinates");
         }
-        return new Point3D(
-                Integer.parseInt(matcher.group(1)),
-                Integer.parseInt(matcher.group(2)),
-                Integer.parseInt(matcher.group(3))
-        );
+        input.nextLine();
+        return new Point3D(x, y, z);
     }
 
     static List<Point3D> adjacentPoints(Point3D point) {
@@ -79,7 +79,7 @@ public class Day18 {
         minimumValues.z = Math.min(point.z, minimumValues.z);
     }
 
-    int partOne() {
+    public Integer partOne() {
         return partOneSurface;
     }
 
@@ -89,7 +89,7 @@ public class Day18 {
                 && p.z >= minimumValues.z && p.z <= maximumValues.z;
     }
 
-    int partTwo() {
+    public Integer partTwo() {
         HashSet<Point3D> visited = new HashSet<>();
         Point3D start = new Point3D(minimumValues);
         Stack<Point3D> todo = new Stack<>() {{ add(start); }};
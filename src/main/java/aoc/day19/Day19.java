@@ -1,13 +1,12 @@
 package aoc.day19;
 
+import aoc.Input;
+import aoc.Solver;
+import aoc.metrics.CounterEvent;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.LongAdder;
 
 // utility type to store costs, income, etc
 class Minerals {
@@ -55,20 +54,9 @@ class Blueprint {
     // maximum number of income needed to build anything every turn
     Minerals maximumIncome = new Minerals();
 
-    // INPUT
-    // Blueprint 1: Each ore robot costs 4 ore. Each clay robot costs 2 ore. Each obsidian robot costs 3 ore and 14 clay. Each geode robot costs 2 ore and 7 obsidian.
-    Blueprint(String line) {
-        this.robotCosts = new HashMap<>();
-        String[] parts = line.split(":");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException();
-        }
-        parseId(parts[0]);
-        String[] costSplit = parts[1].split("\\.");
-        parseCosts(Minerals.Type.Ore, costSplit[0]);
-        parseCosts(Minerals.Type.Clay, costSplit[1]);
-        parseCosts(Minerals.Type.Obsidian, costSplit[2]);
-        parseCosts(Minerals.Type.Geode, costSplit[3]);
+    Blueprint(int id, Map<Minerals.Type, Minerals> robotCosts) {
+        this.id = id;
+        this.robotCosts = robotCosts;
         for (Minerals.Type type: Minerals.Type.values()) {
             int max = calculateMaxCost(type);
             if (max == 0) {
@@ -79,32 +67,65 @@ class Blueprint {
         }
     }
 
-    private int calculateMaxCost(Minerals.Type type) {
-        return robotCosts.values().stream().map(mineral -> mineral.get(type)).max(Integer::compare).get();
+    // INPUT
+    // Blueprint 1: Each ore robot costs 4 ore. Each clay robot costs 2 ore. Each obsidian robot costs 3 ore and 14 clay. Each geode robot costs 2 ore and 7 obsidian.
+    // <line> = "Blueprint " INTEGER ":" <robot> <robot> <robot> <robot>
+    // <robot> = " Each " MINERAL " robot costs " <cost> (" and " <cost>)* "."
+    // <cost> = INTEGER " " MINERAL
+    static Blueprint read(Input input) {
+        input.expect("Blueprint ");
+        int id = input.readInt();
+        input.expect(':');
+        Map<Minerals.Type, Minerals> robotCosts = new HashMap<>();
+        for (Minerals.Type type: Minerals.Type.values()) {
+            input.expect(" Each ");
+            if (readMineral(input) != type) {
+                throw new RuntimeException(String.format("expected the %s robot at %d", type, input.position()));
+            }
+            input.expect(" robot costs ");
+            Minerals costs = new Minerals();
+            readCost(input, costs);
+            while (input.accept(' ')) {
+                input.expect("and ");
+                readCost(input, costs);
+            }
+            input.expect('.');
+            robotCosts.put(type, costs);
+        }
+        input.nextLine();
+        return new Blueprint(id, robotCosts);
     }
 
-    private void parseId(String s) {
-        this.id = Integer.parseInt(s.split(" ")[1]);
+    static void readCost(Input input, Minerals costs) {
+        int amount = input.readInt();
+        input.expect(' ');
+        costs.set(readMineral(input), amount);
     }
 
-    private Minerals.Type parseOreType(String s) {
-        return switch (s) {
-            case "ore" -> Minerals.Type.Ore;
-            case "clay" -> Minerals.Type.Clay;
-            case "obsidian" -> Minerals.Type.Obsidian;
-            default -> throw new RuntimeException(String.format("invalid ore type: %s", s));
-        };
+    // ore, clay, obsidian or geode
+    static Minerals.Type readMineral(Input input) {
+        int start = input.position();
+        if (input.accept('o')) {
+            if (input.accept('r')) {
+                input.expect('e');
+                return Minerals.Type.Ore;
+            }
+            input.expect("bsidian");
+            return Minerals.Type.Obsidian;
+        }
+        if (input.accept('c')) {
+            input.expect("lay");
+            return Minerals.Type.Clay;
+        }
+        if (input.accept('g')) {
+            input.expect("eode");
+            return Minerals.Type.Geode;
+        }
+        throw new RuntimeException(String.format("invalid ore type at %d", start));
     }
 
-    private void parseCosts(Minerals.Type type, String line) {
-        Matcher matcher = Pattern.compile("(\\d+) (\\S+)").matcher(line);
-        Minerals costs = new Minerals();
-        while (matcher.find()) {
-            int amount = Integer.parseInt(matcher.group(1));
-            Minerals.Type oreType = parseOreType(matcher.group(2));
-            costs.set(oreType, amount);
-        }
-        this.robotCosts.put(type, costs);
+    private int calculateMaxCost(Minerals.Type type) {
+        return robotCosts.values().stream().map(mineral -> mineral.get(type)).max(Integer::compare).get();
     }
 
     public Integer getMaxIncome(Minerals.Type type) {
@@ -270,17 +291,19 @@ class State {
     }
 }
 
-public class Day19 {
+public class Day19 implements Solver {
     List<Blueprint> blueprints;
 
     // main concept is we prune states by if the maximum number of possible geodes is not better than what we have found
-    int maximumGeodesOpened(Blueprint blueprint, int time) {
+    int maximumGeodesOpened(Blueprint blueprint, int time, LongAdder expanded) {
         State initial = new State(blueprint, time);
         initial.addToIncome(Minerals.Type.Ore, 1);
         int geodes = 0;
+        long count = 0;
         Stack<State> todo = new Stack<>(){{ add(initial); }};
         while (!todo.isEmpty()) {
             State next = todo.pop();
+            count++;
             geodes = Math.max(geodes, next.getGeodesAtEnd());
             // expansion
             for (State s : next.expand()) {
@@ -290,32 +313,34 @@ public class Day19 {
                 todo.add(s);
             }
         }
+        expanded.add(count);
         return geodes;
     }
 
-    int partOne() {
-        int total = 0;
-        for (Blueprint bp : blueprints) {
-            int id = bp.id;
-            int maximumGeodes = maximumGeodesOpened(bp, 24);
-            total = total + id * maximumGeodes;
-        }
-        return total;
+    // blueprints are independent so they are searched with a parallel stream
+    public Integer partOne() {
+        LongAdder expanded = new LongAdder();
+        int quality = blueprints.parallelStream()
+                .mapToInt(bp -> bp.id * maximumGeodesOpened(bp, 24, expanded))
+                .sum();
+        CounterEvent.emit(19, "statesExpanded", expanded.sum());
+        return quality;
     }
 
-    int partTwo() {
-        int total = 1;
-        for (int i = 0; i < 3; i++) {
-            Blueprint bp = blueprints.get(i);
-            int maximumGeodes = maximumGeodesOpened(bp, 32);
-            total *= maximumGeodes;
-        }
-        return total;
+    public Integer partTwo() {
+        LongAdder expanded = new LongAdder();
+        int product = blueprints.subList(0, 3).parallelStream()
+                .mapToInt(bp -> maximumGeodesOpened(bp, 32, expanded))
+                .reduce(1, (a, b) -> a * b);
+        CounterEvent.emit(19, "statesExpanded", expanded.sum());
+        return product;
     }
 
-    Day19(String filename) throws IOException {
-        try (Stream<String> lines = Files.lines(Paths.get(filename))) {
-            this.blueprints = lines.map(Blueprint::new).collect(Collectors.toCollection(ArrayList::new));
+    public Day19(String filename) throws IOException {
+        this.blueprints = new ArrayList<>();
+        Input input = Input.map(filename);
+        while (input.hasRemaining()) {
+            blueprints.add(Blueprint.read(input));
         }
     }
 
@@ -1,11 +1,11 @@
 package aoc.day20;
 
+import aoc.Input;
+import aoc.Solver;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 class NumberWrapper {
     long value;
@@ -27,19 +27,39 @@ class NumberWrapper {
     }
 }
 
-public class Day20 {
+public class Day20 implements Solver {
+    static final long KEY = 811589153;
+    List<Long> values;
+
+    public Day20(String filename) throws IOException {
+        values = new ArrayList<>();
+        Input input = Input.map(filename);
+        while (input.hasRemaining()) {
+            values.add(input.readLong());
+            input.nextLine();
+        }
+    }
 
     public static void main(String[] args) throws IOException {
         String filename = "inputs/20.txt";
+        Day20 solver = new Day20(filename);
+        System.out.println(solver.partOne());
+        System.out.println(solver.partTwo());
+    }
 
+    // the original only solved part two, part one (a single round without the key) was added with the Solver
+    public Long partOne() {
+        return mix(1, 1);
+    }
 
-        List<NumberWrapper> numbers;
-        try (Stream<String> lines = Files.lines(Paths.get(filename))) {
-            final long KEY = 811589153;
-            numbers = lines.map(NumberWrapper::new).map(n -> new NumberWrapper(n.value * KEY)).collect(Collectors.toCollection(ArrayList::new));
-        }
+    public Long partTwo() {
+        return mix(KEY, 10);
+    }
+
+    long mix(long key, int rounds) {
+        List<NumberWrapper> numbers = values.stream().map(n -> new NumberWrapper(n * key)).collect(Collectors.toCollection(ArrayList::new));
         List<NumberWrapper> order = new ArrayList<>(numbers);
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < rounds; i++) {
             for (NumberWrapper toMove : order) {
                 int index = numbers.indexOf(toMove);
                 toMove = numbers.remove(index);
@@ -60,7 +80,6 @@ public class Day20 {
         long a = numbers.get((zero + 1000) % numbers.size()).intValue();
         long b = numbers.get((zero + 2000) % numbers.size()).intValue();
         long c = numbers.get((zero + 3000) % numbers.size()).intValue();
-        System.out.printf("%d,%d,%d\n", a, b, c);
-        System.out.println(a + b + c);
+        return a + b + c;
     }
 }
@@ -1,5 +1,7 @@
 package aoc.day21;
 
+import aoc.Solver;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -21,7 +23,7 @@ class Operation {
     }
 }
 
-public class Day21 {
+public class Day21 implements Solver {
     Map<String, String> monkeys;
     Map<String, Long> values = new HashMap<>();
 
@@ -40,6 +42,14 @@ public class Day21 {
         this.monkeys = monkeys;
     }
 
+    public Day21(String filename) throws IOException {
+        this(parse(filename));
+    }
+
+    public Long partOne() {
+        return getValue("root");
+    }
+
     long getValue(String name) {
         try {
             long value = Long.parseLong(name);
@@ -190,7 +200,8 @@ public class Day21 {
         return result;
     }
 
-    long partTwo() {
+    public Long partTwo() {
+        operations.clear();
         String[] parts = monkeys.get("root").split(" \\+ ");
         String lhs = getStringValue(parts[0]);
         String rhs = getStringValue(parts[1]);
@@ -206,9 +217,8 @@ public class Day21 {
 
     public static void main(String[] args) throws IOException {
         String filename = "inputs/21.txt";
-        Map<String, String> monkeys = parse(filename);
-        Day21 solver = new Day21(monkeys);
-        System.out.println(solver.getValue("root"));
+        Day21 solver = new Day21(filename);
+        System.out.println(solver.partOne());
         long p2 = solver.partTwo();
         System.out.println(p2);
     }
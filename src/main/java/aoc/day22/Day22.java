@@ -1,12 +1,14 @@
 package aoc.day22;
 
+import aoc.ByteGrid;
 import aoc.Point;
+import aoc.Solver;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -16,7 +18,9 @@ class Grid {
         Empty,
         Wall,
     }
-    private final HashMap<Point, Square> squares;
+    static private final byte OUTSIDE = ' ';
+    // the map as it is in the input, everything off the map (and the border around it) is OUTSIDE
+    private final ByteGrid squares;
     private Point topLeft;
     private final List<Point> sides;
 
@@ -35,7 +39,7 @@ class Grid {
         if (example) {
             SIDE_LENGTH = 4;
         }
-        this.squares = new HashMap<>();
+        this.squares = ByteGrid.fromLines(Arrays.asList(mapData.split("\n")), 1, OUTSIDE);
         this.sides = new ArrayList<>();
         Point position = new Point(0, 0);
         this.topLeft = null;
@@ -46,28 +50,22 @@ class Grid {
                 if (ch != ' ' && isSideTopLeft(position)) {
                     sides.add(new Point(position));
                 }
-                if (ch == '.') {
-                    if (this.topLeft == null) {
-                        this.topLeft = new Point(position);
-                    }
-                    squares.put(new Point(position), Square.Empty);
-                } else if (ch == '#') {
-                    squares.put(new Point(position), Square.Wall);
+                if (ch == '.' && this.topLeft == null) {
+                    this.topLeft = new Point(position);
                 }
                 position.x++;
             }
             position.y++;
         }
-        System.out.println(sides);
     }
 
     // returns true if position or delta changed
     public boolean getNextPosition(Point point, Point delta) {
-        if (!squares.containsKey(point)) {
+        if (!isOnMap(point)) {
             throw new RuntimeException("original point is out of bounds");
         }
         Point newPoint = point.add(delta);
-        if (squares.containsKey(newPoint)) {
+        if (isOnMap(newPoint)) {
             if (getSquare(newPoint) == Square.Wall) {
                 return false;
             }
@@ -95,8 +93,16 @@ class Grid {
 //        return previous;
     }
 
+    boolean isOnMap(Point point) {
+        return squares.get(point.x, point.y) != OUTSIDE;
+    }
+
     public Square getSquare(Point point) {
-        return squares.get(point);
+        return switch (squares.get(point.x, point.y)) {
+            case '.' -> Square.Empty;
+            case '#' -> Square.Wall;
+            default -> null;
+        };
     }
 
     int getSideIndex(Point point) {
@@ -338,11 +344,11 @@ class Grid {
     }
 }
 
-public class Day22 {
+public class Day22 implements Solver {
     Grid grid;
     String instructions;
 
-    Day22(String filename) throws IOException {
+    public Day22(String filename) throws IOException {
         String[] content = Files.readString(Paths.get(filename)).split("\n\n");
         this.grid = new Grid(content[0]);
         this.instructions = content[1];
@@ -364,7 +370,7 @@ public class Day22 {
         throw new RuntimeException("invalid delta");
     }
 
-    int partOne() {
+    public Integer partOne() {
         Matcher matcher = Pattern.compile("((\\d+)|(L)|(R))").matcher(instructions);
         Point current = grid.getTopLeft();
         Point delta = new Point(1, 0);
@@ -387,9 +393,13 @@ public class Day22 {
         int row = current.y + 1;
         int col = current.x + 1;
         int facing = getFacing(delta);
-        System.out.printf("%d %d %d\n", row, col, facing);
         return row * 1000 + col * 4  + facing;
     }
+    // the walk in partOne already wraps around the cube
+    public Object partTwo() {
+        return null;
+    }
+
     public static void main(String[] args) throws IOException {
         String filename = "inputs/22.txt";
         if (Grid.example) {
@@ -1,6 +1,9 @@
 package aoc.day23;
 
 import aoc.Point;
+import aoc.PointMap;
+import aoc.PointSet;
+import aoc.Solver;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -8,7 +11,7 @@ import java.nio.file.Paths;
 import java.util.*;
 
 
-public class Day23 {
+public class Day23 implements Solver {
     static private final Point N = new Point(0, -1);
     static private final Point NE = new Point(1, -1);
     static private final Point NW = new Point(-1, -1);
@@ -17,108 +20,117 @@ public class Day23 {
     static private final Point SW = new Point(-1, 1);
     static private final Point E = new Point(1, 0);
     static private final Point W = new Point(-1, 0);
-    static ArrayDeque<List<Point>> directions = new ArrayDeque<>() {{
-        add(new ArrayList<>() {{ add(N); add(NE); add(NW); }});
-        add(new ArrayList<>() {{ add(S); add(SE); add(SW); }});
-        add(new ArrayList<>() {{ add(W); add(NW); add(SW); }});
-        add(new ArrayList<>() {{ add(E); add(NE); add(SE); }});
-    }};
-    static boolean moved = false;
-
-    static Set<Point> parse(String filename) throws IOException {
-        HashSet<Point> set = new HashSet<>();
+    static private final Point[] ADJACENT = { N, NE, E, SE, S, SW, W, NW };
+    static private final long STAY = Long.MIN_VALUE;
+    PointSet initial;
+    ArrayDeque<List<Point>> directions;
+    boolean moved = false;
+
+    public Day23(String filename) throws IOException {
+        this.initial = parse(filename);
+    }
+
+    // the order of directions rotates every round so every simulation starts from a fresh copy
+    static ArrayDeque<List<Point>> initialDirections() {
+        return new ArrayDeque<>() {{
+            add(new ArrayList<>() {{ add(N); add(NE); add(NW); }});
+            add(new ArrayList<>() {{ add(S); add(SE); add(SW); }});
+            add(new ArrayList<>() {{ add(W); add(NW); add(SW); }});
+            add(new ArrayList<>() {{ add(E); add(NE); add(SE); }});
+        }};
+    }
+
+    static PointSet parse(String filename) throws IOException {
+        PointSet set = new PointSet();
         List<String> lines = Files.readAllLines(Paths.get(filename));
-        Point current = new Point(0, 0);
-        for (String line: lines) {
-            current = new Point(0, current.y);
-            for (int i = 0; i < line.length(); i++) {
-                char ch = line.charAt(i);
-                if (ch == '#') {
-                    set.add(new Point(current));
+        for (int y = 0; y < lines.size(); y++) {
+            String line = lines.get(y);
+            for (int x = 0; x < line.length(); x++) {
+                if (line.charAt(x) == '#') {
+                    set.add(x, y);
                 }
-                current = current.add(new Point(1, 0));
             }
-            current = current.add(new Point(0, 1));
         }
         return set;
     }
 
-    static boolean containsNone(Set<Point> state, Point from, List<Point> deltas) {
+    static boolean containsNone(PointSet state, int x, int y, List<Point> deltas) {
         for (Point delta : deltas) {
-            if (state.contains(from.add(delta))) {
+            if (state.contains(x + delta.x, y + delta.y)) {
                 return false;
             }
         }
         return true;
     }
 
-    static boolean hasAdjacent(Set<Point> state, Point point) {
-        return directions
-                .stream()
-                .flatMap(List::stream)
-                .map(dir -> state.contains(point.add(dir)))
-                .reduce(false, (b, r) -> r || b);
+    static boolean hasAdjacent(PointSet state, int x, int y) {
+        for (Point delta : ADJACENT) {
+            if (state.contains(x + delta.x, y + delta.y)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    static Set<Point> doRound(Set<Point> state) {
-        moved = false;
-        // newPosition -> oldPosition
-        Map<Point, Point> movedPoints = new HashMap<>();
-        Set<Point> takenPoints = new HashSet<>();
-        for (Point point: state) {
-            Point newPosition = null;
-            // check if point can move
-            if (hasAdjacent(state, point)) {
-                for (List<Point> dir : directions) {
-                    if (containsNone(state, point, dir)) {
-                        newPosition = point.add(dir.get(0));
-                        break;
-                    }
-                }
+    // packed position the elf at x, y proposes to move to, STAY if it doesn't move
+    long propose(PointSet state, int x, int y) {
+        if (!hasAdjacent(state, x, y)) {
+            return STAY;
+        }
+        for (List<Point> dir : directions) {
+            if (containsNone(state, x, y, dir)) {
+                return Point.pack(x + dir.get(0).x, y + dir.get(0).y);
             }
-            if (newPosition == null) {
-                movedPoints.put(point, point);
-                continue;
+        }
+        return STAY;
+    }
+
+    // first pass collects the proposals and counts them per destination,
+    // second pass only moves the elves whose destination was proposed once
+    PointSet doRound(PointSet state) {
+        moved = false;
+        long[] elves = state.toArray();
+        long[] proposals = new long[elves.length];
+        PointMap counts = new PointMap(elves.length);
+        for (int i = 0; i < elves.length; i++) {
+            proposals[i] = propose(state, Point.unpackX(elves[i]), Point.unpackY(elves[i]));
+            if (proposals[i] != STAY) {
+                counts.put(proposals[i], counts.get(proposals[i], 0) + 1);
             }
-            moved = true;
-            if (takenPoints.contains(newPosition)) {
-                if (movedPoints.containsKey(newPosition)) {
-                    Point oldPosition = movedPoints.remove(newPosition);
-                    movedPoints.put(oldPosition, oldPosition);
-                }
-                movedPoints.put(point, point);
+        }
+        PointSet next = new PointSet(elves.length);
+        for (int i = 0; i < elves.length; i++) {
+            if (proposals[i] != STAY && counts.get(proposals[i], 0) == 1) {
+                next.add(proposals[i]);
+                moved = true;
             } else {
-                movedPoints.put(newPosition, new Point(point));
-                takenPoints.add(newPosition);
+                next.add(elves[i]);
             }
         }
-        return movedPoints.keySet();
-    }
-
-    static Point getMax(Set<Point> elves) {
-        return elves.stream().reduce(new Point(Integer.MIN_VALUE, Integer.MIN_VALUE), (acc, p) -> {
-            acc.x = Math.max(acc.x, p.x);
-            acc.y = Math.max(acc.y, p.y);
-            return acc;
-        });
+        return next;
     }
 
-    static Point getMin(Set<Point> elves) {
-        return elves.stream().reduce(new Point(Integer.MAX_VALUE, Integer.MAX_VALUE), (acc, p) -> {
-            acc.x = Math.min(acc.x, p.x);
-            acc.y = Math.min(acc.y, p.y);
-            return acc;
+    // smallest rectangle containing every elf as { minX, minY, maxX, maxY }
+    static int[] getBounds(PointSet elves) {
+        int[] bounds = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+        elves.forEach(elf -> {
+            int x = Point.unpackX(elf);
+            int y = Point.unpackY(elf);
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.max(bounds[2], x);
+            bounds[3] = Math.max(bounds[3], y);
         });
+        return bounds;
     }
 
-    static void printElves(Set<Point> elves) {
-        Point min = getMin(elves);
-        Point max = getMax(elves);
+    static void printElves(PointSet elves) {
+        int[] bounds = getBounds(elves);
         int n = 0;
-        System.out.printf("%s, %s\n", min, max);
-        for (int y = min.y; y < max.y + 1; y++) {
-            for (int x = min.x; x < max.x + 1; x++) {
-                if (elves.contains(new Point(x, y))) {
+        System.out.printf("%s\n", Arrays.toString(bounds));
+        for (int y = bounds[1]; y < bounds[3] + 1; y++) {
+            for (int x = bounds[0]; x < bounds[2] + 1; x++) {
+                if (elves.contains(x, y)) {
                     System.out.print('#');
                 } else {
                     System.out.print('.');
@@ -131,23 +143,42 @@ public class Day23 {
         System.out.println();
     }
 
-    public static void main(String[] args) throws IOException {
-        String filename = "inputs/23.txt";
-        Set<Point> elves = parse(filename);
-//        printElves(elves);
+    PointSet nextRound(PointSet elves) {
+        elves = doRound(elves);
+        directions.add(directions.remove());
+        return elves;
+    }
+
+    // empty ground after 10 rounds, the original printed it after the last round instead (the empty ground
+    // once no elf moves), which is not the answer to part one
+    public Integer partOne() {
+        directions = initialDirections();
+        PointSet elves = initial;
+        for (int round = 0; round < 10; round++) {
+            elves = nextRound(elves);
+        }
+        int[] bounds = getBounds(elves);
+        int width = bounds[2] - bounds[0] + 1;
+        int height = bounds[3] - bounds[1] + 1;
+        return width * height - elves.size();
+    }
+
+    public Integer partTwo() {
+        directions = initialDirections();
+        PointSet elves = initial;
         int round = 0;
         do {
-            elves = doRound(elves);
-            directions.add(directions.remove());
+            elves = nextRound(elves);
             round++;
         } while (moved);
-        Point min = getMin(elves);
-        Point max = getMax(elves);
-        int width = Math.abs(max.x - min.x) + 1;
-        int height = Math.abs(max.y - min.y) + 1;
-        int squares = width * height - elves.size();
-        System.out.printf("%d * %d - %d => %d\n", width, height, elves.size(), squares);
-        System.out.println(squares);
-        System.out.println(round);
+        return round;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String filename = "inputs/23.txt";
+        Day23 solver = new Day23(filename);
+//        printElves(solver.initial);
+        System.out.println(solver.partOne());
+        System.out.println(solver.partTwo());
     }
 }
@@ -1,12 +1,15 @@
 package aoc.day24;
 
 import aoc.Point;
+import aoc.PointSet;
+import aoc.Solver;
+import aoc.metrics.CounterEvent;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 class Blizzard {
     static final Point RIGHT = new Point(1, 0);
@@ -35,22 +38,12 @@ class Blizzard {
     // ###
     // (1,1)
     // width = 3, height = 3
-    // inefficient but t^2 is not that bad, if it's a bottleneck we fix it
-    Point doMove(int time, int width, int height) {
-        Point position = new Point(this.position);
-        for (int i = 0; i < time; i++) {
-            position = position.add(direction);
-            if (position.x == 0) {
-                position.x = width - 2;
-            } else if (position.x == width - 1) {
-                position.x = 1;
-            } else if (position.y == 0) {
-                position.y = height - 2;
-            } else if (position.y == height - 1) {
-                position.y = 1;
-            }
-        }
-        return position;
+    // blizzards wrap around inside the walls, so the position after any time is a modulo of the inner size
+    // returns the packed position
+    long doMove(int time, int width, int height) {
+        int x = 1 + Math.floorMod(position.x - 1 + direction.x * time, width - 2);
+        int y = 1 + Math.floorMod(position.y - 1 + direction.y * time, height - 2);
+        return Point.pack(x, y);
     }
 
     @Override
@@ -64,7 +57,7 @@ class BlizzardTracker {
     int height;
     private final List<Blizzard> blizzards;
     // memoized time/steps -> blizzard positions
-    private final Map<Integer, Set<Point>> blizzardTiles = new HashMap<>();
+    private final Map<Integer, PointSet> blizzardTiles = new HashMap<>();
 
     BlizzardTracker(List<Blizzard> blizzards, int width, int height) {
         this.blizzards = blizzards;
@@ -72,11 +65,14 @@ class BlizzardTracker {
         this.height = height;
     }
 
-    Set<Point> blizzardsAtTime(int time) {
+    PointSet blizzardsAtTime(int time) {
         if (blizzardTiles.containsKey(time)) {
             return blizzardTiles.get(time);
         }
-        Set<Point> taken = blizzards.stream().map(blizzard -> blizzard.doMove(time, width, height)).collect(Collectors.toSet());
+        PointSet taken = new PointSet(blizzards.size());
+        for (Blizzard blizzard : blizzards) {
+            taken.add(blizzard.doMove(time, width, height));
+        }
         this.blizzardTiles.put(time, taken);
         return taken;
     }
@@ -98,22 +94,9 @@ class State {
         this.steps = steps;
     }
 
-    static boolean isInBounds(Point point, int width, int height) {
-        return (point.x > 0 && point.y > 0 && point.x < width - 1 && point.y < height - 1)
-                || (point.x == 1 && point.y == 0) || (point.x == width - 2 && point.y == height - 1);
-    }
-
-    List<State> expand(BlizzardTracker blizzardTracker, int width, int height, Set<State> handled) {
-        int nextSteps = steps + 1;
-        Set<Point> forbidden = blizzardTracker.blizzardsAtTime(nextSteps);
-        return DELTAS
-                .stream()
-                .map(delta -> position.add(delta))
-                .filter(point -> isInBounds(point, width, height))
-                .filter(point -> !forbidden.contains(point))
-                .map(point -> new State(point, nextSteps))
-                .filter(state -> !handled.contains(state))
-                .collect(Collectors.toList());
+    static boolean isInBounds(int x, int y, int width, int height) {
+        return (x > 0 && y > 0 && x < width - 1 && y < height - 1)
+                || (x == 1 && y == 0) || (x == width - 2 && y == height - 1);
     }
 
     @Override
@@ -136,14 +119,14 @@ class State {
     }
 }
 
-public class Day24 {
+public class Day24 implements Solver {
     BlizzardTracker blizzardTracker;
     int width;
     int height;
     Point start;
     Point end;
 
-    Day24(String filename) throws IOException {
+    public Day24(String filename) throws IOException {
         List<String> lines = Files.readAllLines(Paths.get(filename));
         List<Blizzard> blizzards = new ArrayList<>();
         for (int y = 0; y < lines.size(); y++) {
@@ -176,30 +159,54 @@ public class Day24 {
         System.out.println(p2);
     }
 
+    // breadth first search one minute at a time: every position in the queue has taken the same number of steps,
+    // so the positions of a minute can be expanded with a parallel stream
     int bfs(State initial, Point goal) {
-        Set<State> handled = new HashSet<>();
-        Queue<State> queue = new ArrayDeque<>(){{
-            add(initial);
-        }};
+        PointSet queue = new PointSet();
+        queue.add(initial.position.x, initial.position.y);
+        int steps = initial.steps;
         int maxQueue = 0;
         while (!queue.isEmpty()) {
             maxQueue = Math.max(maxQueue, queue.size());
-            State top = queue.remove();
-            if (top.position.equals(goal)) {
-                return top.steps;
+            if (queue.contains(goal)) {
+                CounterEvent.emit(24, "maxFrontier", maxQueue);
+                return steps;
             }
-            List<State> nextStates = top.expand(blizzardTracker, width, height, handled);
-            queue.addAll(nextStates);
-            handled.addAll(nextStates);
+            PointSet forbidden = blizzardTracker.blizzardsAtTime(steps + 1);
+            long[] next = LongStream.of(queue.toArray())
+                    .parallel()
+                    .flatMap(position -> neighbours(position, forbidden))
+                    .toArray();
+            // positions reached from several neighbours are only kept once
+            queue = new PointSet(next.length);
+            for (long position : next) {
+                queue.add(position);
+            }
+            steps += 1;
         }
         throw new RuntimeException("no solution found");
     }
 
-    int partOne() {
+    // packed positions that can be reached from position in one minute
+    LongStream neighbours(long position, PointSet forbidden) {
+        int x = Point.unpackX(position);
+        int y = Point.unpackY(position);
+        LongStream.Builder builder = LongStream.builder();
+        for (Point delta : State.DELTAS) {
+            int nx = x + delta.x;
+            int ny = y + delta.y;
+            if (State.isInBounds(nx, ny, width, height) && !forbidden.contains(nx, ny)) {
+                builder.add(Point.pack(nx, ny));
+            }
+        }
+        return builder.build();
+    }
+
+    public Integer partOne() {
         return bfs(new State(start, 0), end);
     }
 
-    int partTwo() {
+    public Integer partTwo() {
         // first bfs to end, then from end to start, then from that start to the end again
         int steps = partOne();
         int toStart = bfs(new State(end, steps), start);
@@ -1,10 +1,13 @@
 package aoc.day25;
 
+import aoc.Solver;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
 
-public class Day25 {
+public class Day25 implements Solver {
     static long snafuValue(byte b) {
         return switch (b) {
             case '2' -> 2;
@@ -46,11 +49,25 @@ public class Day25 {
         return builder.reverse().toString();
     }
 
+    List<String> numbers;
+
+    public Day25(String filename) throws IOException {
+        this.numbers = Files.readAllLines(Paths.get(filename));
+    }
+
+    public String partOne() {
+        long n = numbers.stream().map(Day25::snafuToLong).reduce(0L, Math::addExact);
+        return longToSnafu(n);
+    }
+
+    // the last day only has a single puzzle
+    public Object partTwo() {
+        return null;
+    }
+
     public static void main(String[] args) throws IOException {
         String filename = "inputs/25.txt";
-        long n = Files.readAllLines(Paths.get(filename)).stream().map(Day25::snafuToLong).reduce(0L, Math::addExact);
-        System.out.println(n);
-        String s = longToSnafu(n);
-        System.out.println(s);
+        Day25 solver = new Day25(filename);
+        System.out.println(solver.partOne());
     }
 }
@@ -0,0 +1,36 @@
+package aoc.generate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Writes a synthetic input for a single day.
+// usage: Generate DAY SCALE [--seed SEED] [--out FILE]
+// e.g.   Generate 20 1000000 --seed 7
+// without --out the input is written to build/generated/NN-SCALE-SEED.txt
+public class Generate {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: Generate DAY SCALE [--seed SEED] [--out FILE]");
+            System.exit(1);
+        }
+        int day = Integer.parseInt(args[0]);
+        int scale = Integer.parseInt(args[1]);
+        long seed = 0;
+        Path out = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--out")) {
+                out = Paths.get(args[++i]);
+            } else {
+                throw new IllegalArgumentException("unknown argument: " + args[i]);
+            }
+        }
+        if (out == null) {
+            out = Paths.get("build", "generated", String.format("%02d-%d-%d.txt", day, scale, seed));
+        }
+        Generators.write(day, scale, seed, out);
+        System.out.println(out);
+    }
+}
@@ -0,0 +1,684 @@
+package aoc.generate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+// Synthetic puzzle inputs at any scale, the same seed always gives the same input.
+// What the scale counts differs per day, see the comment above each generator.
+public class Generators {
+    @FunctionalInterface
+    public interface Generator {
+        void generate(Random random, int scale, PrintWriter out);
+    }
+
+    private static final Generator[] GENERATORS = {
+            Generators::day01, Generators::day02, Generators::day03, Generators::day04, Generators::day05,
+            Generators::day06, Generators::day07, Generators::day08, Generators::day09, Generators::day10,
+            Generators::day11, Generators::day12, Generators::day13, Generators::day14, Generators::day15,
+            Generators::day16, Generators::day17, Generators::day18, Generators::day19, Generators::day20,
+            Generators::day21, Generators::day22, Generators::day23, Generators::day24, Generators::day25,
+    };
+
+    public static Generator generator(int day) {
+        if (day < 1 || day > GENERATORS.length) {
+            throw new IllegalArgumentException("no such day: " + day);
+        }
+        return GENERATORS[day - 1];
+    }
+
+    public static void write(int day, int scale, long seed, Path path) throws IOException {
+        if (scale < 1) {
+            throw new IllegalArgumentException("scale must be at least 1");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // written next to the target and moved in place once complete, so an interrupted run leaves no partial input
+        Path partial = path.resolveSibling(path.getFileName() + ".partial");
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(Files.newBufferedWriter(partial), 1 << 16))) {
+            generator(day).generate(new Random(seed), scale, out);
+        }
+        Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static int between(Random random, int low, int high) {
+        return low + random.nextInt(high - low + 1);
+    }
+
+    // elves, each carrying 1 to 10 snacks
+    static void day01(Random random, int scale, PrintWriter out) {
+        for (int elf = 0; elf < scale; elf++) {
+            if (elf > 0) {
+                out.print('\n');
+            }
+            int snacks = between(random, 1, 10);
+            for (int i = 0; i < snacks; i++) {
+                out.print(between(random, 1000, 60000));
+                out.print('\n');
+            }
+        }
+    }
+
+    // rounds
+    static void day02(Random random, int scale, PrintWriter out) {
+        for (int i = 0; i < scale; i++) {
+            out.print((char)('A' + random.nextInt(3)));
+            out.print(' ');
+            out.print((char)('X' + random.nextInt(3)));
+            out.print('\n');
+        }
+    }
+
+    static char item(int type) {
+        return (char)(type < 26 ? 'a' + type : 'A' + type - 26);
+    }
+
+    // rucksacks, rounded up to whole groups of three
+    // the lines of a group only share the badge, the halves of a line only share one item
+    static void day03(Random random, int scale, PrintWriter out) {
+        List<Integer> types = new ArrayList<>();
+        for (int type = 0; type < 52; type++) {
+            types.add(type);
+        }
+        for (int group = 0; group < (scale + 2) / 3; group++) {
+            Collections.shuffle(types, random);
+            int badge = types.get(0);
+            for (int line = 0; line < 3; line++) {
+                // 17 types per line, the first one is in both halves and the next 8 are only in the first half
+                List<Integer> own = types.subList(1 + line * 17, 1 + (line + 1) * 17);
+                int size = between(random, 3, 16);
+                char[] first = new char[size];
+                char[] second = new char[size];
+                for (int i = 0; i < size; i++) {
+                    first[i] = item(own.get(1 + random.nextInt(8)));
+                    second[i] = item(own.get(9 + random.nextInt(8)));
+                }
+                first[random.nextInt(size)] = item(own.get(0));
+                second[random.nextInt(size)] = item(own.get(0));
+                // the badge goes in the half without the shared item at position 0
+                char[] half = random.nextBoolean() ? first : second;
+                int position = half[0] == item(own.get(0)) ? 1 : 0;
+                half[position] = item(badge);
+                out.print(first);
+                out.print(second);
+                out.print('\n');
+            }
+        }
+    }
+
+    // pairs of section ranges
+    static void day04(Random random, int scale, PrintWriter out) {
+        for (int i = 0; i < scale; i++) {
+            for (int range = 0; range < 2; range++) {
+                int low = between(random, 1, 99);
+                int high = between(random, low, 99);
+                out.printf(range == 0 ? "%d-%d," : "%d-%d\n", low, high);
+            }
+        }
+    }
+
+    // moves on nine stacks, every move leaves at least one crate behind so no stack ends up empty
+    static void day05(Random random, int scale, PrintWriter out) {
+        int numStacks = 9;
+        int[] heights = new int[numStacks];
+        int highest = 0;
+        for (int i = 0; i < numStacks; i++) {
+            // more crates than stacks, so there is always a stack to take from
+            heights[i] = between(random, i == 0 ? 2 : 1, 8);
+            highest = Math.max(highest, heights[i]);
+        }
+        for (int row = highest; row > 0; row--) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < numStacks; i++) {
+                if (i > 0) {
+                    line.append(' ');
+                }
+                line.append(heights[i] >= row ? "[" + (char)('A' + random.nextInt(26)) + "]" : "   ");
+            }
+            out.print(line);
+            out.print('\n');
+        }
+        for (int i = 0; i < numStacks; i++) {
+            out.printf(i == 0 ? " %d " : "  %d ", i + 1);
+        }
+        out.print("\n\n");
+        for (int i = 0; i < scale; i++) {
+            int from;
+            do {
+                from = random.nextInt(numStacks);
+            } while (heights[from] < 2);
+            // now and then onto the same stack, which leaves it as it is
+            int to = (from + between(random, 0, numStacks - 1)) % numStacks;
+            int n = between(random, 1, Math.min(heights[from] - 1, 10));
+            heights[from] -= n;
+            heights[to] += n;
+            out.printf("move %d from %d to %d\n", n, from + 1, to + 1);
+        }
+    }
+
+    // characters of the signal, the only 14 distinct characters are at the very end
+    static void day06(Random random, int scale, PrintWriter out) {
+        for (int i = 0; i < scale; i++) {
+            out.print((char)('a' + random.nextInt(13)));
+        }
+        out.print("nopqrstuvwxyza\n");
+    }
+
+    // directories, visited depth first
+    static void day07(Random random, int scale, PrintWriter out) {
+        // children of each directory, directory 0 is the root
+        List<List<Integer>> children = new ArrayList<>();
+        children.add(new ArrayList<>());
+        for (int dir = 1; dir < scale; dir++) {
+            children.get(random.nextInt(dir)).add(dir);
+            children.add(new ArrayList<>());
+        }
+        out.print("$ cd /\n");
+        Deque<Integer> todo = new ArrayDeque<>();
+        todo.push(0);
+        while (!todo.isEmpty()) {
+            int dir = todo.pop();
+            if (dir < 0) {
+                out.print("$ cd ..\n");
+                continue;
+            }
+            if (dir != 0) {
+                out.printf("$ cd d%d\n", dir);
+            }
+            out.print("$ ls\n");
+            for (int child : children.get(dir)) {
+                out.printf("dir d%d\n", child);
+            }
+            int files = between(random, 0, 4);
+            for (int i = 0; i < files; i++) {
+                out.printf("%d f%d.txt\n", between(random, 1000, 300000), i);
+            }
+            if (dir != 0) {
+                todo.push(-1);
+            }
+            for (int child : children.get(dir)) {
+                todo.push(child);
+            }
+        }
+    }
+
+    // width and height of the forest
+    static void day08(Random random, int scale, PrintWriter out) {
+        char[] row = new char[scale];
+        for (int y = 0; y < scale; y++) {
+            for (int x = 0; x < scale; x++) {
+                row[x] = (char)('0' + random.nextInt(10));
+            }
+            out.print(row);
+            out.print('\n');
+        }
+    }
+
+    // head moves
+    static void day09(Random random, int scale, PrintWriter out) {
+        for (int i = 0; i < scale; i++) {
+            out.printf("%c %d\n", "RLUD".charAt(random.nextInt(4)), between(random, 1, 20));
+        }
+    }
+
+    // instructions, at least enough for the 240 cycles of the CRT
+    static void day10(Random random, int scale, PrintWriter out) {
+        int x = 1;
+        for (int i = 0; i < Math.max(scale, 240); i++) {
+            if (random.nextInt(3) == 0) {
+                out.print("noop\n");
+            } else {
+                // keep the sprite on the screen
+                int value = between(random, -15, 15);
+                if (x + value < 0 || x + value > 39) {
+                    value = -value;
+                }
+                x += value;
+                out.printf("addx %d\n", value);
+            }
+        }
+    }
+
+    static final int[] DIVISORS = { 2, 3, 5, 7, 11, 13, 17, 19 };
+
+    // items, spread over eight monkeys
+    // the monkeys are generated until no item overflows a long during the 20 rounds of part one
+    static void day11(Random random, int scale, PrintWriter out) {
+        int n = DIVISORS.length;
+        String[] operations = new String[n];
+        int[] divisors;
+        int[][] targets = new int[n][2];
+        // { worry level, monkey holding it }
+        List<long[]> items = new ArrayList<>();
+        do {
+            List<Integer> shuffled = new ArrayList<>();
+            for (int divisor : DIVISORS) {
+                shuffled.add(divisor);
+            }
+            Collections.shuffle(shuffled, random);
+            divisors = shuffled.stream().mapToInt(Integer::intValue).toArray();
+            int square = random.nextInt(n);
+            for (int i = 0; i < n; i++) {
+                if (i == square) {
+                    operations[i] = "old * old";
+                } else if (random.nextBoolean()) {
+                    operations[i] = "old * " + between(random, 2, 19);
+                } else {
+                    operations[i] = "old + " + between(random, 1, 8);
+                }
+                targets[i][0] = (i + between(random, 1, n - 1)) % n;
+                targets[i][1] = (i + between(random, 1, n - 1)) % n;
+            }
+            items.clear();
+            for (int attempt = 0; attempt < 10 * scale && items.size() < scale; attempt++) {
+                long item = between(random, 50, 99);
+                int monkey = random.nextInt(n);
+                if (fitsPartOne(item, monkey, operations, divisors, targets)) {
+                    items.add(new long[] { item, monkey });
+                }
+            }
+        } while (items.size() < scale);
+        List<List<Long>> holding = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            holding.add(new ArrayList<>());
+        }
+        for (long[] item : items) {
+            holding.get((int)item[1]).add(item[0]);
+        }
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                out.print('\n');
+            }
+            out.printf("Monkey %d:\n", i);
+            StringJoiner joiner = new StringJoiner(", ");
+            holding.get(i).forEach(item -> joiner.add(Long.toString(item)));
+            out.printf("  Starting items: %s\n", joiner);
+            out.printf("  Operation: new = %s\n", operations[i]);
+            out.printf("  Test: divisible by %d\n", divisors[i]);
+            out.printf("    If true: throw to monkey %d\n", targets[i][0]);
+            out.printf("    If false: throw to monkey %d\n", targets[i][1]);
+        }
+    }
+
+    // items never interact, so a single item can be followed through the rounds on its own
+    static boolean fitsPartOne(long item, int monkey, String[] operations, int[] divisors, int[][] targets) {
+        try {
+            for (int round = 0; round < 20; round++) {
+                // within a round the item moves on as long as it is thrown to a monkey that still has its turn
+                int turn;
+                do {
+                    turn = monkey;
+                    String[] parts = operations[monkey].split(" ");
+                    long operand = parts[2].equals("old") ? item : Long.parseLong(parts[2]);
+                    item = (parts[1].equals("*") ? Math.multiplyExact(item, operand) : Math.addExact(item, operand)) / 3;
+                    monkey = targets[monkey][item % divisors[monkey] == 0 ? 0 : 1];
+                } while (monkey > turn);
+            }
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    // width and height of the height map
+    // a ramp from 'a' on the left to 'z' on the right, with random pits that can't be climbed out of
+    // the middle row stays a clean ramp so there is always a path
+    static void day12(Random random, int scale, PrintWriter out) {
+        int size = Math.max(scale, 26);
+        int middle = size / 2;
+        char[] row = new char[size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int height = x * 25 / (size - 1);
+                if (y != middle && random.nextInt(5) == 0) {
+                    height = random.nextInt(height + 1);
+                }
+                row[x] = (char)('a' + height);
+            }
+            if (y == middle) {
+                row[0] = 'S';
+                row[size - 1] = 'E';
+            }
+            out.print(row);
+            out.print('\n');
+        }
+    }
+
+    static void packet(Random random, int depth, StringBuilder builder) {
+        if (depth > 3 || random.nextInt(3) == 0) {
+            builder.append(random.nextInt(11));
+            return;
+        }
+        builder.append('[');
+        int size = random.nextInt(5);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            packet(random, depth + 1, builder);
+        }
+        builder.append(']');
+    }
+
+    // pairs of packets
+    static void day13(Random random, int scale, PrintWriter out) {
+        for (int pair = 0; pair < scale; pair++) {
+            if (pair > 0) {
+                out.print('\n');
+            }
+            for (int i = 0; i < 2; i++) {
+                StringBuilder builder = new StringBuilder("[");
+                int size = random.nextInt(5);
+                for (int j = 0; j < size; j++) {
+                    if (j > 0) {
+                        builder.append(',');
+                    }
+                    packet(random, 1, builder);
+                }
+                out.print(builder.append("]\n"));
+            }
+        }
+    }
+
+    // rock paths, the cave gets deeper with the number of paths
+    static void day14(Random random, int scale, PrintWriter out) {
+        int depth = Math.max(20, (int)Math.sqrt(scale) * 8);
+        int spread = Math.min(depth, 490);
+        for (int i = 0; i < scale; i++) {
+            int x = between(random, 500 - spread, 500 + spread);
+            int y = between(random, 5, depth);
+            StringJoiner path = new StringJoiner(" -> ");
+            path.add(x + "," + y);
+            int segments = between(random, 1, 4);
+            for (int segment = 0; segment < segments; segment++) {
+                int length = between(random, -8, 8);
+                if (segment % 2 == 0) {
+                    x = Math.max(0, x + length);
+                } else {
+                    y = Math.max(1, y + length);
+                }
+                path.add(x + "," + y);
+            }
+            out.print(path);
+            out.print('\n');
+        }
+    }
+
+    static final int DAY15_MAX = 4000000;
+
+    // sensors around a single hidden beacon, every sensor reaches to just before it
+    static void day15(Random random, int scale, PrintWriter out) {
+        int hiddenX = random.nextInt(DAY15_MAX + 1);
+        int hiddenY = random.nextInt(DAY15_MAX + 1);
+        for (int i = 0; i < scale; i++) {
+            int x;
+            int y;
+            int distance;
+            do {
+                x = random.nextInt(DAY15_MAX + 1);
+                y = random.nextInt(DAY15_MAX + 1);
+                distance = Math.abs(x - hiddenX) + Math.abs(y - hiddenY);
+            } while (distance < 2);
+            int reach = distance - 1;
+            int dx = random.nextInt(reach + 1);
+            int dy = reach - dx;
+            int beaconX = x + (random.nextBoolean() ? dx : -dx);
+            int beaconY = y + (random.nextBoolean() ? dy : -dy);
+            out.printf("Sensor at x=%d, y=%d: closest beacon is at x=%d, y=%d\n", x, y, beaconX, beaconY);
+        }
+    }
+
+    static String valveName(int i) {
+        return "" + (char)('A' + i / 26) + (char)('A' + i % 26);
+    }
+
+    // valves (at most 676), six of which have a flow rate
+    static void day16(Random random, int scale, PrintWriter out) {
+        int n = Math.min(Math.max(scale, 2), 26 * 26);
+        List<Set<Integer>> tunnels = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tunnels.add(new TreeSet<>());
+        }
+        // a random tree keeps every valve reachable, a few extra tunnels add cycles
+        for (int i = 1; i < n; i++) {
+            int other = random.nextInt(i);
+            tunnels.get(i).add(other);
+            tunnels.get(other).add(i);
+        }
+        for (int i = 0; i < n / 10; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                tunnels.get(a).add(b);
+                tunnels.get(b).add(a);
+            }
+        }
+        Set<Integer> flowing = new HashSet<>();
+        while (flowing.size() < Math.min(6, n - 1)) {
+            flowing.add(between(random, 1, n - 1));
+        }
+        for (int i = 0; i < n; i++) {
+            StringJoiner joiner = new StringJoiner(", ");
+            tunnels.get(i).forEach(other -> joiner.add(valveName(other)));
+            int flow = flowing.contains(i) ? between(random, 3, 25) : 0;
+            if (tunnels.get(i).size() == 1) {
+                out.printf("Valve %s has flow rate=%d; tunnel leads to valve %s\n", valveName(i), flow, joiner);
+            } else {
+                out.printf("Valve %s has flow rate=%d; tunnels lead to valves %s\n", valveName(i), flow, joiner);
+            }
+        }
+    }
+
+    // jets
+    static void day17(Random random, int scale, PrintWriter out) {
+        for (int i = 0; i < scale; i++) {
+            out.print(random.nextBoolean() ? '<' : '>');
+        }
+        out.print('\n');
+    }
+
+    // distinct cubes, packed in a box twice their number
+    static void day18(Random random, int scale, PrintWriter out) {
+        int side = (int)Math.ceil(Math.cbrt(2.0 * scale));
+        Set<Long> seen = new HashSet<>();
+        while (seen.size() < scale) {
+            int x = random.nextInt(side);
+            int y = random.nextInt(side);
+            int z = random.nextInt(side);
+            if (seen.add(((long)x * side + y) * side + z)) {
+                out.printf("%d,%d,%d\n", x, y, z);
+            }
+        }
+    }
+
+    // blueprints, at least three for part two
+    static void day19(Random random, int scale, PrintWriter out) {
+        for (int id = 1; id <= Math.max(scale, 3); id++) {
+            out.printf("Blueprint %d: Each ore robot costs %d ore. Each clay robot costs %d ore. "
+                            + "Each obsidian robot costs %d ore and %d clay. Each geode robot costs %d ore and %d obsidian.\n",
+                    id, between(random, 2, 4), between(random, 2, 4),
+                    between(random, 2, 4), between(random, 5, 20), between(random, 2, 4), between(random, 5, 20));
+        }
+    }
+
+    // numbers, exactly one of which is 0
+    static void day20(Random random, int scale, PrintWriter out) {
+        int zero = random.nextInt(scale);
+        for (int i = 0; i < scale; i++) {
+            int value = 0;
+            while (i != zero && value == 0) {
+                value = between(random, -10000, 10000);
+            }
+            out.print(value);
+            out.print('\n');
+        }
+    }
+
+    // monkeys (at least three)
+    // the tree is built top down from the value every monkey has to yell, so every division is exact.
+    // humn is only ever added, subtracted or divided (as numerator), so part two has an integer answer too
+    static void day21(Random random, int scale, PrintWriter out) {
+        int size = Math.max(3, scale | 1);
+        Set<String> names = new HashSet<>(List.of("root", "humn"));
+        // four letters like the puzzle input, as long as there are enough of them
+        int nameLength = size < 26 * 26 * 26 * 26 / 2 ? 4 : 5;
+        List<String> lines = new ArrayList<>();
+        int humnSide = random.nextInt(2);
+        int left = (size - 1) / 2 | 1;
+        String a = day21Monkey(random, between(random, 1_000_000, 1_000_000_000), left, humnSide == 0, nameLength, names, lines);
+        String b = day21Monkey(random, between(random, 1_000_000, 1_000_000_000), size - 1 - left, humnSide == 1, nameLength, names, lines);
+        lines.add(String.format("root: %s + %s", a, b));
+        Collections.shuffle(lines, random);
+        lines.forEach(line -> {
+            out.print(line);
+            out.print('\n');
+        });
+    }
+
+    // size is the number of monkeys in this subtree and always odd
+    static String day21Monkey(Random random, long value, int size, boolean holdsHumn, int nameLength, Set<String> names, List<String> lines) {
+        String name;
+        if (size == 1 && holdsHumn) {
+            name = "humn";
+        } else {
+            do {
+                name = "";
+                for (int i = 0; i < nameLength; i++) {
+                    name += (char)('a' + random.nextInt(26));
+                }
+            } while (!names.add(name));
+        }
+        if (size == 1) {
+            lines.add(String.format("%s: %d", name, value));
+            return name;
+        }
+        int left = 2 * random.nextInt((size - 1) / 2) + 1;
+        int right = size - 1 - left;
+        boolean humnLeft = random.nextBoolean();
+        long lhs;
+        long rhs;
+        char op;
+        int choice = random.nextInt(4);
+        if (choice == 0 && value > 1) {
+            op = '+';
+            lhs = 1 + (long)(random.nextDouble() * (value - 1));
+            rhs = value - lhs;
+        } else if (choice == 1 && !holdsHumn && value % 2 == 0) {
+            op = '*';
+            lhs = value / 2;
+            rhs = 2;
+        } else if (choice == 2 && value < 1_000_000_000_000L) {
+            op = '/';
+            rhs = between(random, 2, 9);
+            lhs = value * rhs + random.nextInt((int)rhs);
+            humnLeft = true;
+        } else {
+            op = '-';
+            rhs = between(random, 1, 1000);
+            lhs = value + rhs;
+        }
+        String a = day21Monkey(random, lhs, left, holdsHumn && humnLeft, nameLength, names, lines);
+        String b = day21Monkey(random, rhs, right, holdsHumn && !humnLeft, nameLength, names, lines);
+        lines.add(String.format("%s: %s %c %s", name, a, op, b));
+        return name;
+    }
+
+    // instructions, walked over a cube with the same net and side length as the puzzle input
+    static void day22(Random random, int scale, PrintWriter out) {
+        int side = 50;
+        // top left corner of the sides in units of a side
+        int[][] net = { { 1, 0 }, { 2, 0 }, { 1, 1 }, { 0, 2 }, { 1, 2 }, { 0, 3 } };
+        char[][] rows = new char[4 * side][];
+        for (int[] corner : net) {
+            for (int y = corner[1] * side; y < (corner[1] + 1) * side; y++) {
+                int width = (corner[0] + 1) * side;
+                if (rows[y] == null || rows[y].length < width) {
+                    char[] row = new char[width];
+                    Arrays.fill(row, ' ');
+                    if (rows[y] != null) {
+                        System.arraycopy(rows[y], 0, row, 0, rows[y].length);
+                    }
+                    rows[y] = row;
+                }
+                for (int x = corner[0] * side; x < width; x++) {
+                    rows[y][x] = random.nextInt(10) == 0 ? '#' : '.';
+                }
+            }
+        }
+        // the walk starts on the first open tile
+        rows[0][side] = '.';
+        for (char[] row : rows) {
+            out.print(row);
+            out.print('\n');
+        }
+        out.print('\n');
+        for (int i = 0; i < scale; i++) {
+            out.print(between(random, 1, 50));
+            if (i < scale - 1) {
+                out.print(random.nextBoolean() ? 'L' : 'R');
+            }
+        }
+        out.print('\n');
+    }
+
+    // width and height of the grove, about half of it filled with elves
+    static void day23(Random random, int scale, PrintWriter out) {
+        char[] row = new char[scale];
+        for (int y = 0; y < scale; y++) {
+            for (int x = 0; x < scale; x++) {
+                row[x] = random.nextBoolean() ? '#' : '.';
+            }
+            out.print(row);
+            out.print('\n');
+        }
+    }
+
+    // inner width of the valley, which is a quarter as high
+    // there are no vertical blizzards in the entrance and exit columns, like in the puzzle input
+    static void day24(Random random, int scale, PrintWriter out) {
+        int width = Math.max(scale, 4) + 2;
+        int height = Math.max(scale / 4, 4) + 2;
+        char[] row = new char[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (y == 0) {
+                    row[x] = x == 1 ? '.' : '#';
+                } else if (y == height - 1) {
+                    row[x] = x == width - 2 ? '.' : '#';
+                } else if (x == 0 || x == width - 1) {
+                    row[x] = '#';
+                } else if (random.nextInt(10) < 4) {
+                    boolean vertical = x != 1 && x != width - 2 && random.nextBoolean();
+                    row[x] = vertical ? "^v".charAt(random.nextInt(2)) : "<>".charAt(random.nextInt(2));
+                } else {
+                    row[x] = '.';
+                }
+            }
+            out.print(row);
+            out.print('\n');
+        }
+    }
+
+    static String snafu(long n) {
+        StringBuilder builder = new StringBuilder();
+        while (n > 0) {
+            int digit = (int)(n % 5);
+            builder.append("012=-".charAt(digit));
+            n = n / 5 + (digit > 2 ? 1 : 0);
+        }
+        return builder.reverse().toString();
+    }
+
+    // SNAFU numbers
+    static void day25(Random random, int scale, PrintWriter out) {
+        for (int i = 0; i < scale; i++) {
+            out.print(snafu(1 + (long)(random.nextDouble() * 1e12)));
+            out.print('\n');
+        }
+    }
+}
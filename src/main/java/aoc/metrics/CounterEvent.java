@@ -0,0 +1,38 @@
+package aoc.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event for an amount of work done by a solver, like the states expanded by a search.
+// Solvers count into a local variable and emit the total once, so the counting costs nothing when not recording.
+// The event is committed on the thread running the phase, which is how the summary attributes it to that phase.
+@Name(CounterEvent.NAME)
+@Label("Solver Counter")
+@Category({"Advent of Code"})
+@Description("Work done by a solver during a phase")
+@StackTrace(false)
+public class CounterEvent extends jdk.jfr.Event {
+    public static final String NAME = "aoc.Counter";
+
+    @Label("Day")
+    int day;
+
+    @Label("Counter")
+    String counter;
+
+    @Label("Value")
+    long value;
+
+    public static void emit(int day, String counter, long value) {
+        CounterEvent event = new CounterEvent();
+        if (event.shouldCommit()) {
+            event.day = day;
+            event.counter = counter;
+            event.value = value;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package aoc.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event spanning the parse, part one or part two phase of a day
+@Name(PhaseEvent.NAME)
+@Label("Solver Phase")
+@Category({"Advent of Code"})
+@Description("Parsing or solving one part of a day")
+@StackTrace(false)
+public class PhaseEvent extends jdk.jfr.Event {
+    public static final String NAME = "aoc.Phase";
+    public static final String PARSE = "parse";
+    public static final String PART_ONE = "partOne";
+    public static final String PART_TWO = "partTwo";
+
+    @Label("Day")
+    int day;
+
+    @Label("Phase")
+    String phase;
+
+    public PhaseEvent(int day, String phase) {
+        this.day = day;
+        this.phase = phase;
+    }
+}
@@ -0,0 +1,225 @@
+package aoc.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+// Prints the per phase breakdown of a recording made with jfr/aoc.jfc.
+// usage: Summary FILE.jfr [--top N]
+// Method samples and allocations count for a phase when they are taken on its thread, or on any thread
+// (the workers of a parallel stream) while it is the only phase running. Collections count for every phase they overlap.
+public class Summary {
+    static private final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    static private final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    static private final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+
+    static class Span {
+        final Instant start;
+        final Instant end;
+        final long threadId;
+
+        Span(RecordedEvent event) {
+            this.start = event.getStartTime();
+            this.end = event.getEndTime();
+            this.threadId = threadId(event.getThread());
+        }
+
+        boolean contains(Instant time) {
+            return !time.isBefore(start) && !time.isAfter(end);
+        }
+    }
+
+    // a day and phase over all the runs in the recording
+    static class Phase {
+        final int day;
+        final String name;
+        final List<Span> spans = new ArrayList<>();
+        long totalNanos = 0;
+        long minNanos = Long.MAX_VALUE;
+        long maxNanos = 0;
+        long gcNanos = 0;
+        long allocatedBytes = 0;
+        int samples = 0;
+        final Map<String, Integer> topFrames = new HashMap<>();
+        // counter -> {events, sum, largest}
+        final Map<String, long[]> counters = new TreeMap<>();
+
+        Phase(int day, String name) {
+            this.day = day;
+            this.name = name;
+        }
+
+        void add(RecordedEvent event) {
+            long nanos = event.getDuration().toNanos();
+            spans.add(new Span(event));
+            totalNanos += nanos;
+            minNanos = Math.min(minNanos, nanos);
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        void count(String counter, long value) {
+            long[] values = counters.computeIfAbsent(counter, key -> new long[3]);
+            values[0] += 1;
+            values[1] += value;
+            values[2] = Math.max(values[2], value);
+        }
+
+        int runs() {
+            return spans.size();
+        }
+    }
+
+    final Map<String, Phase> phases = new TreeMap<>();
+    final List<Phase> order = new ArrayList<>();
+    final List<RecordedEvent> others = new ArrayList<>();
+    final List<RecordedEvent> counters = new ArrayList<>();
+
+    static long threadId(RecordedThread thread) {
+        return thread == null ? -1 : thread.getJavaThreadId();
+    }
+
+    static String key(int day, String phase) {
+        return String.format("%02d %s", day, phase);
+    }
+
+    Summary(Path recording) throws IOException {
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            switch (event.getEventType().getName()) {
+                case PhaseEvent.NAME -> {
+                    int day = event.getInt("day");
+                    String name = event.getString("phase");
+                    Phase phase = phases.computeIfAbsent(key(day, name), key -> {
+                        Phase created = new Phase(day, name);
+                        order.add(created);
+                        return created;
+                    });
+                    phase.add(event);
+                }
+                case CounterEvent.NAME -> counters.add(event);
+                case EXECUTION_SAMPLE, ALLOCATION_SAMPLE, GARBAGE_COLLECTION -> others.add(event);
+                default -> {}
+            }
+        }
+        order.sort(Comparator.comparingInt((Phase phase) -> phase.day).thenComparing(phase -> phaseOrder(phase.name)));
+        for (RecordedEvent event : counters) {
+            // counters are committed on the thread of their phase
+            Phase phase = owner(event.getStartTime(), threadId(event.getThread()));
+            if (phase != null) {
+                phase.count(event.getString("counter"), event.getLong("value"));
+            }
+        }
+        for (RecordedEvent event : others) {
+            switch (event.getEventType().getName()) {
+                case EXECUTION_SAMPLE -> sample(event);
+                case ALLOCATION_SAMPLE -> {
+                    Phase phase = owner(event.getStartTime(), threadId(event.getThread("eventThread")));
+                    if (phase != null) {
+                        phase.allocatedBytes += event.getLong("weight");
+                    }
+                }
+                case GARBAGE_COLLECTION -> collection(event);
+                default -> {}
+            }
+        }
+    }
+
+    static int phaseOrder(String name) {
+        return switch (name) {
+            case PhaseEvent.PARSE -> 0;
+            case PhaseEvent.PART_ONE -> 1;
+            case PhaseEvent.PART_TWO -> 2;
+            default -> 3;
+        };
+    }
+
+    // the phase running on the thread at that time, otherwise the only phase running at all
+    Phase owner(Instant time, long threadId) {
+        Phase only = null;
+        int running = 0;
+        for (Phase phase : order) {
+            for (Span span : phase.spans) {
+                if (span.contains(time)) {
+                    if (span.threadId == threadId) {
+                        return phase;
+                    }
+                    only = phase;
+                    running++;
+                }
+            }
+        }
+        return running == 1 ? only : null;
+    }
+
+    void sample(RecordedEvent event) {
+        Phase phase = owner(event.getStartTime(), threadId(event.getThread("sampledThread")));
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (phase == null || stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        phase.samples++;
+        phase.topFrames.merge(frame(stackTrace.getFrames().get(0)), 1, Integer::sum);
+    }
+
+    static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    void collection(RecordedEvent event) {
+        for (Phase phase : order) {
+            for (Span span : phase.spans) {
+                Instant start = event.getStartTime().isAfter(span.start) ? event.getStartTime() : span.start;
+                Instant end = event.getEndTime().isBefore(span.end) ? event.getEndTime() : span.end;
+                if (start.isBefore(end)) {
+                    phase.gcNanos += Duration.between(start, end).toNanos();
+                }
+            }
+        }
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+
+    void print(int top) {
+        System.out.printf("%3s %-8s %5s %12s %12s %12s %12s %10s %10s %8s\n",
+                "day", "phase", "runs", "total ms", "mean ms", "min ms", "max ms", "gc ms", "alloc MB", "samples");
+        for (Phase phase : order) {
+            System.out.printf("%3d %-8s %5d %12s %12s %12s %12s %10s %10.1f %8d\n", phase.day, phase.name, phase.runs(),
+                    millis(phase.totalNanos), millis(phase.totalNanos / phase.runs()), millis(phase.minNanos), millis(phase.maxNanos),
+                    millis(phase.gcNanos), phase.allocatedBytes / 1e6, phase.samples);
+            for (Map.Entry<String, long[]> counter : phase.counters.entrySet()) {
+                long[] values = counter.getValue();
+                System.out.printf("%18s %,d per run (%d events, largest %,d)\n",
+                        counter.getKey(), values[1] / phase.runs(), values[0], values[2]);
+            }
+            phase.topFrames.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(top)
+                    .forEach(entry -> System.out.printf("%17d%% %s\n", 100 * entry.getValue() / phase.samples, entry.getKey()));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("usage: Summary FILE.jfr [--top N]");
+        }
+        int top = 3;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--top")) {
+                top = Integer.parseInt(args[++i]);
+            } else {
+                throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+        new Summary(Paths.get(args[0])).print(top);
+    }
+}
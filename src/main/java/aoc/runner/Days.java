@@ -0,0 +1,85 @@
+package aoc.runner;
+
+import aoc.*;
+import aoc.day11.Day11;
+import aoc.day17.Day17;
+import aoc.day18.Day18;
+import aoc.day19.Day19;
+import aoc.day20.Day20;
+import aoc.day21.Day21;
+import aoc.day22.Day22;
+import aoc.day23.Day23;
+import aoc.day24.Day24;
+import aoc.day25.Day25;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// registry of all days, day N parses inputs/NN.txt
+public class Days {
+    public static final int COUNT = 25;
+
+    @FunctionalInterface
+    public interface Parser {
+        Solver parse(String filename) throws IOException;
+    }
+
+    private static final Parser[] PARSERS = {
+            Day01::new, Day02::new, Day03::new, Day04::new, Day05::new,
+            Day06::new, Day07::new, Day08::new, Day09::new, Day10::new,
+            Day11::new, Day12::new, Day13::new, Day14::new, Day15::new,
+            Day16::new, Day17::new, Day18::new, Day19::new, Day20::new,
+            Day21::new, Day22::new, Day23::new, Day24::new, Day25::new,
+    };
+
+    // cached answers are only used for the same version of a day,
+    // bump it with any change that could give a different answer (or type of answer) on the same input
+    private static final int[] VERSIONS = {
+            3, 2, 2, 2, 2,
+            2, 2, 2, 2, 2,
+            2, 1, 1, 1, 1,
+            1, 1, 1, 1, 1,
+            1, 1, 1, 1, 1,
+    };
+
+    public static Parser parser(int day) {
+        if (day < 1 || day > COUNT) {
+            throw new IllegalArgumentException("no such day: " + day);
+        }
+        return PARSERS[day - 1];
+    }
+
+    public static int version(int day) {
+        parser(day);
+        return VERSIONS[day - 1];
+    }
+
+    public static String input(int day) {
+        return String.format("inputs/%02d.txt", day);
+    }
+
+    public static Solver parse(int day) throws IOException {
+        return parser(day).parse(input(day));
+    }
+
+    // <selection> = <item> ("," <item>)*
+    // <item> = INTEGER | INTEGER "-" INTEGER
+    public static List<Integer> parseSelection(String selection) {
+        List<Integer> days = new ArrayList<>();
+        for (String item : selection.split(",")) {
+            String[] bounds = item.trim().split("-");
+            int first = Integer.parseInt(bounds[0]);
+            int last = bounds.length == 1 ? first : Integer.parseInt(bounds[1]);
+            for (int day = first; day <= last; day++) {
+                parser(day);
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    public static List<Integer> all() {
+        return parseSelection("1-" + COUNT);
+    }
+}
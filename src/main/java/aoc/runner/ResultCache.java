@@ -0,0 +1,380 @@
+package aoc.runner;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Answers of earlier runs on disk, keyed by the day, the version of its solver and the SHA-256 of the input.
+// The index is a memory mapped hash table with linear probing, the answers of an entry are in their own small file.
+// When the number of entries or the bytes of their files go over the limits the least recently used entries are removed.
+// Only one process at a time uses a cache directory, any other process runs without it.
+public class ResultCache implements Closeable {
+    static final Path DEFAULT_DIRECTORY = Path.of("build", "cache", "results");
+    static final int DEFAULT_CAPACITY = 4096;
+    static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    static private final int MAGIC = 0x414f4352;
+    // 2: strings are a length and UTF-8 bytes, so they can be longer than 64 KB
+    static private final int FORMAT = 2;
+    // header: magic, format, capacity, count, tick, total bytes
+    static private final int HEADER_SIZE = 64;
+    static private final int COUNT = 12;
+    static private final int TICK = 16;
+    static private final int TOTAL_BYTES = 24;
+    // slot: state, day, version, sha-256, size of the data file, last used tick
+    static private final int SLOT_SIZE = 64;
+    static private final int DAY = 4;
+    static private final int VERSION = 8;
+    static private final int HASH = 12;
+    static private final int SIZE = 44;
+    static private final int LAST_USED = 48;
+    static private final byte EMPTY = 0;
+    static private final byte USED = 1;
+    static private final byte REMOVED = 2;
+    // entries are evicted above this fraction of the slots so probe sequences stay short
+    static private final double MAX_LOAD = 0.75;
+    // answer types in the data files
+    static private final byte NULL = 'n';
+    static private final byte INTEGER = 'i';
+    static private final byte LONG = 'l';
+    static private final byte STRING = 's';
+    // largest part of an input that is mapped at once for its hash
+    static private final long MAX_WINDOW = 1 << 30;
+
+    public static class Key {
+        final int day;
+        final int version;
+        final byte[] sha256;
+
+        Key(int day, int version, byte[] sha256) {
+            this.day = day;
+            this.version = version;
+            this.sha256 = sha256;
+        }
+
+        static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public static Key of(int day, ByteBuffer input) {
+            MessageDigest digest = sha256();
+            digest.update(input.duplicate());
+            return new Key(day, Days.version(day), digest.digest());
+        }
+
+        public static Key of(int day, byte[] input) {
+            return of(day, ByteBuffer.wrap(input));
+        }
+
+        // a single mapping holds at most 2 GB, so larger inputs are hashed a window at a time
+        public static Key of(int day, Path input) throws IOException {
+            MessageDigest digest = sha256();
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                long size = channel.size();
+                for (long position = 0; position < size; position += MAX_WINDOW) {
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_WINDOW, size - position)));
+                }
+            }
+            return new Key(day, Days.version(day), digest.digest());
+        }
+
+        String fileName() {
+            return String.format("%02d-v%d-%s", day, version, HexFormat.of().formatHex(sha256));
+        }
+
+        // first bytes of the hash, the day is mixed in for identical inputs of different days
+        int hash() {
+            return ByteBuffer.wrap(sha256).getInt() ^ (day * 0x9e3779b9);
+        }
+    }
+
+    // the answers of both parts
+    public static class Entry {
+        final Object partOne;
+        final Object partTwo;
+
+        Entry(Object partOne, Object partTwo) {
+            this.partOne = partOne;
+            this.partTwo = partTwo;
+        }
+
+        public Object getPartOne() {
+            return partOne;
+        }
+
+        public Object getPartTwo() {
+            return partTwo;
+        }
+    }
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer index;
+    private final int capacity;
+    private final long maxBytes;
+
+    private ResultCache(Path directory, FileChannel channel, FileLock lock, int capacity, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.channel = channel;
+        this.lock = lock;
+        this.maxBytes = maxBytes;
+        long size = HEADER_SIZE + (long)capacity * SLOT_SIZE;
+        boolean valid = channel.size() >= HEADER_SIZE;
+        MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_WRITE, 0, valid ? HEADER_SIZE : size);
+        // an existing index keeps its capacity, anything unreadable is started over
+        if (valid && existing.getInt(0) == MAGIC && existing.getInt(4) == FORMAT
+                && channel.size() == HEADER_SIZE + (long)existing.getInt(8) * SLOT_SIZE) {
+            this.capacity = existing.getInt(8);
+            this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        } else {
+            channel.truncate(0);
+            deleteData();
+            this.capacity = capacity;
+            this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            index.putInt(0, MAGIC);
+            index.putInt(4, FORMAT);
+            index.putInt(8, capacity);
+        }
+    }
+
+    // null if another process, or another cache in this process, is using the directory
+    public static ResultCache open(Path directory, int capacity, long maxBytes) throws IOException {
+        if (capacity < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("capacity and size of the cache must be positive");
+        }
+        Files.createDirectories(directory.resolve("data"));
+        FileChannel channel = FileChannel.open(directory.resolve("index"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            return null;
+        }
+        return new ResultCache(directory, channel, lock, capacity, maxBytes);
+    }
+
+    public static ResultCache open() throws IOException {
+        return open(DEFAULT_DIRECTORY, DEFAULT_CAPACITY, DEFAULT_MAX_BYTES);
+    }
+
+    int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    boolean matches(int offset, Key key) {
+        if (index.getInt(offset + DAY) != key.day || index.getInt(offset + VERSION) != key.version) {
+            return false;
+        }
+        for (int i = 0; i < key.sha256.length; i++) {
+            if (index.get(offset + HASH + i) != key.sha256[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // slot of the key, or -1
+    int find(Key key) {
+        int slot = Math.floorMod(key.hash(), capacity);
+        for (int probes = 0; probes < capacity; probes++) {
+            int offset = slotOffset(slot);
+            byte state = index.get(offset);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == USED && matches(offset, key)) {
+                return slot;
+            }
+            slot = slot + 1 == capacity ? 0 : slot + 1;
+        }
+        return -1;
+    }
+
+    long tick() {
+        long tick = index.getLong(TICK) + 1;
+        index.putLong(TICK, tick);
+        return tick;
+    }
+
+    int count() {
+        return index.getInt(COUNT);
+    }
+
+    long totalBytes() {
+        return index.getLong(TOTAL_BYTES);
+    }
+
+    // null if the answers are not in the cache
+    public synchronized Entry get(Key key) throws IOException {
+        int slot = find(key);
+        if (slot == -1) {
+            return null;
+        }
+        Entry entry;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(data(key))))) {
+            entry = new Entry(readAnswer(in), readAnswer(in));
+        } catch (IOException e) {
+            // the data file is gone or damaged, forget the entry
+            remove(slot);
+            return null;
+        }
+        index.putLong(slotOffset(slot) + LAST_USED, tick());
+        return entry;
+    }
+
+    public synchronized void put(Key key, Object partOne, Object partTwo) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeAnswer(out, partOne);
+            writeAnswer(out, partTwo);
+        }
+        int existing = find(key);
+        if (existing != -1) {
+            remove(existing);
+        }
+        while (count() > 0 && (count() + 1 > capacity * MAX_LOAD || totalBytes() + bytes.size() > maxBytes)) {
+            remove(leastRecentlyUsed());
+        }
+        if (bytes.size() > maxBytes) {
+            return;
+        }
+        Path partial = directory.resolve("data").resolve(key.fileName() + ".partial");
+        Files.write(partial, bytes.toByteArray());
+        Files.move(partial, data(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        int slot = Math.floorMod(key.hash(), capacity);
+        while (index.get(slotOffset(slot)) == USED) {
+            slot = slot + 1 == capacity ? 0 : slot + 1;
+        }
+        int offset = slotOffset(slot);
+        index.putInt(offset + DAY, key.day);
+        index.putInt(offset + VERSION, key.version);
+        index.put(offset + HASH, key.sha256);
+        index.putInt(offset + SIZE, bytes.size());
+        index.putLong(offset + LAST_USED, tick());
+        index.put(offset, USED);
+        index.putInt(COUNT, count() + 1);
+        index.putLong(TOTAL_BYTES, totalBytes() + bytes.size());
+    }
+
+    int leastRecentlyUsed() {
+        int oldest = -1;
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = slotOffset(slot);
+            if (index.get(offset) == USED && (oldest == -1 || index.getLong(offset + LAST_USED) < index.getLong(slotOffset(oldest) + LAST_USED))) {
+                oldest = slot;
+            }
+        }
+        return oldest;
+    }
+
+    // the slot becomes REMOVED so the probe sequences through it are not cut short,
+    // unless it is at the end of a sequence: then it and the REMOVED slots before it can be EMPTY again
+    void remove(int slot) throws IOException {
+        int offset = slotOffset(slot);
+        byte[] sha256 = new byte[32];
+        index.get(offset + HASH, sha256);
+        Key key = new Key(index.getInt(offset + DAY), index.getInt(offset + VERSION), sha256);
+        Files.deleteIfExists(data(key));
+        index.putInt(COUNT, count() - 1);
+        index.putLong(TOTAL_BYTES, totalBytes() - index.getInt(offset + SIZE));
+        index.put(offset, REMOVED);
+        int next = slot + 1 == capacity ? 0 : slot + 1;
+        if (index.get(slotOffset(next)) != EMPTY) {
+            return;
+        }
+        while (index.get(slotOffset(slot)) == REMOVED) {
+            index.put(slotOffset(slot), EMPTY);
+            slot = slot == 0 ? capacity - 1 : slot - 1;
+        }
+    }
+
+    public synchronized void clear() throws IOException {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (index.get(slotOffset(slot)) == USED) {
+                remove(slot);
+            }
+        }
+    }
+
+    // the data files of an index that is started over
+    private void deleteData() throws IOException {
+        Path data = directory.resolve("data");
+        if (!Files.isDirectory(data)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(data)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    Path data(Key key) {
+        return directory.resolve("data").resolve(key.fileName());
+    }
+
+    static void writeAnswer(DataOutputStream out, Object answer) throws IOException {
+        if (answer == null) {
+            out.writeByte(NULL);
+        } else if (answer instanceof Integer value) {
+            out.writeByte(INTEGER);
+            out.writeInt(value);
+        } else if (answer instanceof Long value) {
+            out.writeByte(LONG);
+            out.writeLong(value);
+        } else {
+            byte[] bytes = answer.toString().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static Object readAnswer(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case INTEGER -> in.readInt();
+            case LONG -> in.readLong();
+            case STRING -> {
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("invalid string length: " + length);
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                yield new String(bytes, StandardCharsets.UTF_8);
+            }
+            default -> throw new IOException("unknown answer type: " + type);
+        };
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        index.force();
+        lock.release();
+        channel.close();
+    }
+}
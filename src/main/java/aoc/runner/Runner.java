@@ -0,0 +1,96 @@
+package aoc.runner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs any subset of days in a single JVM and prints a timing table.
+// usage: Runner [days] [--repeat N] [--parallel [THREADS]] [--no-cache] [--clear-cache]
+// e.g.   Runner 1-5,12 --repeat 10
+// --parallel runs independent days concurrently, see Scheduler
+// answers of unchanged inputs come from the ResultCache, --no-cache always runs the days (for benchmarking)
+public class Runner {
+    List<Integer> days = Days.all();
+    int repeat = 1;
+    int threads = 0;
+    boolean useCache = true;
+    boolean clearCache = false;
+
+    Runner(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--repeat") || args[i].equals("-n")) {
+                repeat = Integer.parseInt(args[++i]);
+                if (repeat < 1) {
+                    throw new IllegalArgumentException("repeat must be at least 1");
+                }
+            } else if (args[i].equals("--no-cache")) {
+                useCache = false;
+            } else if (args[i].equals("--clear-cache")) {
+                clearCache = true;
+            } else if (args[i].equals("--parallel")) {
+                threads = Runtime.getRuntime().availableProcessors();
+                if (i + 1 < args.length && args[i + 1].matches("\\d+")) {
+                    threads = Integer.parseInt(args[++i]);
+                }
+            } else {
+                days = Days.parseSelection(args[i]);
+            }
+        }
+    }
+
+    // another runner using the cache at the same time means running without it
+    ResultCache openCache() throws IOException {
+        if (!useCache && !clearCache) {
+            return null;
+        }
+        ResultCache cache = ResultCache.open();
+        if (cache != null && clearCache) {
+            cache.clear();
+        }
+        if (cache != null && !useCache) {
+            cache.close();
+            return null;
+        }
+        return cache;
+    }
+
+    List<Timing> run() throws IOException {
+        try (ResultCache cache = openCache()) {
+            if (threads > 0) {
+                Scheduler scheduler = new Scheduler(threads, new TimingHistory(TimingHistory.DEFAULT_PATH), cache);
+                return scheduler.run(days, repeat);
+            }
+            List<Timing> timings = new ArrayList<>();
+            for (int day : days) {
+                timings.add(Timing.measure(day, repeat, cache));
+            }
+            return timings;
+        }
+    }
+
+    static void print(List<Timing> timings, int repeat) {
+        for (Timing timing : timings) {
+            System.out.println(timing.answers());
+        }
+        System.out.println();
+        System.out.printf("best of %d run(s)\n", repeat);
+        System.out.println(Timing.header());
+        long warm = 0;
+        long cold = 0;
+        for (Timing timing : timings) {
+            System.out.println(timing.row());
+            warm += timing.getWarmNanos();
+            cold += timing.getColdNanos();
+        }
+        System.out.printf("%3s %12s %12s %12s %12s %12s\n", "all", "", "", "", Timing.millis(warm), Timing.millis(cold));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Runner runner = new Runner(args);
+        long start = System.nanoTime();
+        List<Timing> timings = runner.run();
+        long wallClock = System.nanoTime() - start;
+        print(timings, runner.repeat);
+        System.out.printf("wall clock: %s ms\n", Timing.millis(wallClock));
+    }
+}
@@ -0,0 +1,172 @@
+package aoc.runner;
+
+import aoc.generate.Generators;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Times days on generated inputs of growing size to show how they scale.
+// usage: Scaling [days] [--sizes S1,S2,...] [--seed SEED] [--budget SECONDS] [--repeat N]
+// e.g.   Scaling 12,15,20 --budget 30
+// Every size runs in a fresh JVM which is killed once it takes longer than the budget, the sizes after it are skipped.
+// Results go to build/reports/scaling/dayNN.csv, the printed table plots the time on a log scale
+// and the slope between two sizes estimates the exponent k in O(n^k).
+public class Scaling {
+    // the largest scale tried by default, see Generators for what the scale of a day counts
+    static final int[] LARGEST = {
+            1_000_000, 1_000_000, 1_000_000, 1_000_000, 1_000_000,
+            10_000_000, 100_000, 2_000, 1_000_000, 1_000_000,
+            100_000, 5_000, 100_000, 100_000, 100_000,
+            676, 100_000, 1_000_000, 100, 1_000_000,
+            1_000_000, 1_000_000, 500, 500, 1_000_000,
+    };
+    // bars in the plot are this many characters per factor 10 of time
+    static final int PLOT_WIDTH = 12;
+
+    List<Integer> days = Days.all();
+    List<Integer> sizes = null;
+    long seed = 0;
+    int budgetSeconds = 60;
+    int repeat = 1;
+
+    Scaling(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sizes" -> {
+                    sizes = new ArrayList<>();
+                    for (String size : args[++i].split(",")) {
+                        sizes.add(Integer.parseInt(size.trim()));
+                    }
+                }
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--budget" -> budgetSeconds = Integer.parseInt(args[++i]);
+                case "--repeat", "-n" -> repeat = Integer.parseInt(args[++i]);
+                default -> days = Days.parseSelection(args[i]);
+            }
+        }
+    }
+
+    // factor sqrt(10) steps from a thousandth of the largest size up to it
+    static List<Integer> defaultSizes(int day) {
+        List<Integer> sizes = new ArrayList<>();
+        int largest = LARGEST[day - 1];
+        for (int step = -6; step <= 0; step++) {
+            int size = (int)Math.round(largest * Math.pow(10, step / 2.0));
+            if (size >= 1 && (sizes.isEmpty() || size > sizes.get(sizes.size() - 1))) {
+                sizes.add(size);
+            }
+        }
+        return sizes;
+    }
+
+    static class Row {
+        int scale;
+        long bytes;
+        // parse, part one and part two in nanoseconds
+        long[] nanos;
+
+        Row(int scale, long bytes, long[] nanos) {
+            this.scale = scale;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        long total() {
+            return nanos[0] + nanos[1] + nanos[2];
+        }
+    }
+
+    // rows are printed as soon as they are measured, the slow sizes can take a while
+    List<Row> run(int day) throws IOException, InterruptedException {
+        System.out.printf("day %02d\n", day);
+        System.out.printf("%10s %12s %12s %6s  %s\n", "scale", "bytes", "total ms", "slope", "log10(ms)");
+        List<Row> rows = new ArrayList<>();
+        Row previous = null;
+        for (int scale : sizes == null ? defaultSizes(day) : sizes) {
+            Path input = Paths.get("build", "scaling", String.format("%02d", day), String.format("%d-%d.txt", scale, seed));
+            if (!Files.exists(input)) {
+                Generators.write(day, scale, seed, input);
+            }
+            Row row = new Row(scale, Files.size(input), measure(day, input));
+            if (row.nanos == null) {
+                System.out.printf("%10d %12d %12s\n", row.scale, row.bytes, "> " + budgetSeconds + " s");
+                break;
+            }
+            rows.add(row);
+            System.out.println(plot(row, previous));
+            previous = row;
+        }
+        return rows;
+    }
+
+    static String plot(Row row, Row previous) {
+        String slope = "";
+        if (previous != null) {
+            slope = String.format("%.2f", Math.log(row.total() / (double)previous.total()) / Math.log(row.scale / (double)previous.scale));
+        }
+        // bars start at 0.01 ms
+        int bar = (int)Math.round(Math.max(0, Math.log10(row.total() / 1e6) + 2) * PLOT_WIDTH);
+        return String.format("%10d %12d %12s %6s  %s", row.scale, row.bytes, Timing.millis(row.total()), slope, "#".repeat(bar));
+    }
+
+    // runs the day in a child JVM with the same options as this one, null if it failed or ran out of time
+    long[] measure(int day, Path input) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Scaling.class.getName());
+        command.add("--measure");
+        command.add(Integer.toString(day));
+        command.add(input.toString());
+        command.add(Integer.toString(repeat));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        if (!process.waitFor(budgetSeconds, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line = reader.readLine();
+            if (process.exitValue() != 0 || line == null) {
+                return null;
+            }
+            String[] parts = line.trim().split(" ");
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]) };
+        }
+    }
+
+    static void save(int day, List<Row> rows) throws IOException {
+        Path csv = Paths.get("build", "reports", "scaling", String.format("day%02d.csv", day));
+        Files.createDirectories(csv.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("scale,bytes,parse_ms,part_one_ms,part_two_ms,total_ms");
+            for (Row row : rows) {
+                out.printf("%d,%d,%s,%s,%s,%s\n", row.scale, row.bytes,
+                        Timing.millis(row.nanos[0]), Timing.millis(row.nanos[1]), Timing.millis(row.nanos[2]), Timing.millis(row.total()));
+            }
+        }
+        System.out.printf("written to %s\n\n", csv);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 4 && args[0].equals("--measure")) {
+            Timing timing = Timing.measure(Integer.parseInt(args[1]), args[2], Integer.parseInt(args[3]));
+            System.out.printf("%d %d %d\n", timing.parseNanos, timing.partOneNanos, timing.partTwoNanos);
+            return;
+        }
+        Scaling scaling = new Scaling(args);
+        for (int day : scaling.days) {
+            save(day, scaling.run(day));
+        }
+    }
+}
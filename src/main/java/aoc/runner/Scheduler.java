@@ -0,0 +1,144 @@
+package aoc.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+
+// Runs independent days concurrently, longest expected day first.
+// Every day runs inside its own ForkJoinPool so the parallel streams of a solver are limited to the budget of that day:
+// the searches of days 15, 16, 19 and 24 share the machine, the other days get a single core.
+// A day holds a permit per thread of its budget while it runs, so the days running at once never use more than
+// the given threads together.
+public class Scheduler {
+    public static final Set<Integer> HEAVY_DAYS = Set.of(15, 16, 19, 24);
+    // guesses used for days without a previous timing, heavy days still go first
+    static final long HEAVY_GUESS_NANOS = 1_000_000_000L;
+    static final long LIGHT_GUESS_NANOS = 10_000_000L;
+
+    private final int threads;
+    private final TimingHistory history;
+    private final ResultCache cache;
+    private final Semaphore permits;
+    // threads of every heavy day, the machine divided over the heavy days that may run at once
+    private int heavyBudget;
+
+    Scheduler(int threads, TimingHistory history, ResultCache cache) {
+        this.threads = threads;
+        this.history = history;
+        this.cache = cache;
+        this.permits = new Semaphore(threads);
+        this.heavyBudget = threads;
+    }
+
+    int budget(int day) {
+        return HEAVY_DAYS.contains(day) ? heavyBudget : 1;
+    }
+
+    // with k heavy days among the days every one of them gets threads / k, so they can all run at once
+    void divideBudget(List<Integer> days) {
+        heavyBudget = heavyBudget(threads, days.stream().distinct().filter(HEAVY_DAYS::contains).count());
+    }
+
+    // threads of every heavy solve when that many of them may run at once
+    public static int heavyBudget(int threads, long heavySolves) {
+        return Math.max(1, threads / (int)Math.max(1, Math.min(heavySolves, threads)));
+    }
+
+    long expectedNanos(int day) {
+        if (history.has(day)) {
+            return history.expectedNanos(day);
+        }
+        return HEAVY_DAYS.contains(day) ? HEAVY_GUESS_NANOS : LIGHT_GUESS_NANOS;
+    }
+
+    // longest processing time first: with the slow days started first the total wall clock time
+    // is close to the slowest day instead of the sum of all days
+    List<Integer> order(List<Integer> days) {
+        List<Integer> ordered = new ArrayList<>(days);
+        ordered.sort(Comparator.comparingLong(this::expectedNanos).reversed());
+        return ordered;
+    }
+
+    public interface Solve<T> {
+        T run() throws IOException;
+    }
+
+    // runs the solve inside a ForkJoinPool of its own, so the parallel streams of the solver use at most budget threads
+    public static <T> T inPool(int budget, Solve<T> solve) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(budget);
+        try {
+            return pool.submit(() -> {
+                try {
+                    return solve.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            // join rethrows an exception of another thread as a copy with the original as cause,
+            // once for every parallel stream it went through
+            RuntimeException original = e;
+            while (original.getCause() != null && original.getCause().getClass() == original.getClass()) {
+                original = (RuntimeException)original.getCause();
+            }
+            throw original;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    Timing runDay(int day, int repeat) throws IOException {
+        int budget = budget(day);
+        permits.acquireUninterruptibly(budget);
+        try {
+            return inPool(budget, () -> Timing.measure(day, repeat, cache));
+        } finally {
+            permits.release(budget);
+        }
+    }
+
+    // timings in the order of the given days
+    List<Timing> run(List<Integer> days, int repeat) throws IOException {
+        divideBudget(days);
+        Queue<Integer> todo = new ConcurrentLinkedQueue<>(order(days));
+        Map<Integer, Timing> timings = Collections.synchronizedMap(new HashMap<>());
+        ForkJoinPool workers = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < Math.min(threads, days.size()); i++) {
+                tasks.add(workers.submit(() -> {
+                    for (Integer day = todo.poll(); day != null; day = todo.poll()) {
+                        Timing timing;
+                        try {
+                            timing = runDay(day, repeat);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        // a cache hit says nothing about how long the day takes
+                        if (!timing.isCached()) {
+                            history.record(timing);
+                        }
+                        timings.put(day, timing);
+                    }
+                }));
+            }
+            tasks.forEach(ForkJoinTask::join);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            workers.shutdown();
+        }
+        history.save();
+        List<Timing> result = new ArrayList<>();
+        for (int day : days) {
+            result.add(timings.get(day));
+        }
+        return result;
+    }
+}
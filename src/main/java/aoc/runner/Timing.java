@@ -0,0 +1,137 @@
+package aoc.runner;
+
+import aoc.Solver;
+import aoc.metrics.PhaseEvent;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// wall clock measurements of a single day, repeated runs keep the fastest time of each phase
+public class Timing {
+    final int day;
+    int runs = 0;
+    long coldNanos = 0;
+    long parseNanos = Long.MAX_VALUE;
+    long partOneNanos = Long.MAX_VALUE;
+    long partTwoNanos = Long.MAX_VALUE;
+    Object partOne;
+    Object partTwo;
+    // answers came from the result cache, the parse time is the time of the lookup
+    boolean cached = false;
+
+    Timing(int day) {
+        this.day = day;
+    }
+
+    static Timing measure(int day, int repeat) throws IOException {
+        return measure(day, Days.input(day), repeat);
+    }
+
+    // a day whose answers are in the cache is not run, otherwise its answers are stored after measuring it
+    static Timing measure(int day, int repeat, ResultCache cache) throws IOException {
+        if (cache == null) {
+            return measure(day, repeat);
+        }
+        long start = System.nanoTime();
+        ResultCache.Key key = ResultCache.Key.of(day, Paths.get(Days.input(day)));
+        ResultCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            Timing timing = new Timing(day);
+            timing.cached = true;
+            timing.record(System.nanoTime() - start, 0, 0, entry.getPartOne(), entry.getPartTwo());
+            return timing;
+        }
+        Timing timing = measure(day, repeat);
+        cache.put(key, timing.partOne, timing.partTwo);
+        return timing;
+    }
+
+    // every phase is also a PhaseEvent when Flight Recorder is running
+    static Timing measure(int day, String filename, int repeat) throws IOException {
+        Timing timing = new Timing(day);
+        for (int i = 0; i < repeat; i++) {
+            PhaseEvent parse = new PhaseEvent(day, PhaseEvent.PARSE);
+            long start = System.nanoTime();
+            parse.begin();
+            Solver solver = Days.parser(day).parse(filename);
+            parse.commit();
+            long parsed = System.nanoTime();
+            PhaseEvent partOne = new PhaseEvent(day, PhaseEvent.PART_ONE);
+            partOne.begin();
+            Object one = solver.partOne();
+            partOne.commit();
+            long first = System.nanoTime();
+            PhaseEvent partTwo = new PhaseEvent(day, PhaseEvent.PART_TWO);
+            partTwo.begin();
+            Object two = solver.partTwo();
+            partTwo.commit();
+            long second = System.nanoTime();
+            timing.record(parsed - start, first - parsed, second - first, one, two);
+        }
+        return timing;
+    }
+
+    void record(long parse, long one, long two, Object partOne, Object partTwo) {
+        if (runs == 0) {
+            coldNanos = parse + one + two;
+        }
+        runs += 1;
+        parseNanos = Math.min(parseNanos, parse);
+        partOneNanos = Math.min(partOneNanos, one);
+        partTwoNanos = Math.min(partTwoNanos, two);
+        this.partOne = partOne;
+        this.partTwo = partTwo;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public int getDay() {
+        return day;
+    }
+
+    public long getWarmNanos() {
+        return parseNanos + partOneNanos + partTwoNanos;
+    }
+
+    public long getColdNanos() {
+        return coldNanos;
+    }
+
+    public Object getPartOne() {
+        return partOne;
+    }
+
+    public Object getPartTwo() {
+        return partTwo;
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+
+    static String header() {
+        return String.format("%3s %12s %12s %12s %12s %12s", "day", "parse ms", "part one ms", "part two ms", "warm ms", "cold ms");
+    }
+
+    String row() {
+        if (cached) {
+            return String.format("%3d %12s %12s %12s %12s %12s", day, millis(parseNanos), "cached", "cached", millis(getWarmNanos()), millis(coldNanos));
+        }
+        return String.format("%3d %12s %12s %12s %12s %12s", day, millis(parseNanos), millis(partOneNanos), millis(partTwoNanos), millis(getWarmNanos()), millis(coldNanos));
+    }
+
+    // multi line answers (the CRT of day 10) start on their own line
+    static String answer(Object answer) {
+        if (answer == null) {
+            return "-";
+        }
+        String s = answer.toString();
+        return s.contains("\n") ? "\n" + s.stripTrailing() : s;
+    }
+
+    String answers() {
+        return String.format("day %02d: p1: %s, p2: %s", day, answer(partOne), answer(partTwo));
+    }
+}
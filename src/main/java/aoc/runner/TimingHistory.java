@@ -0,0 +1,46 @@
+package aoc.runner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+// warm wall clock time of the previous run of every day, stored as "<day>=<nanos>"
+public class TimingHistory {
+    static final Path DEFAULT_PATH = Path.of("build", "timings.properties");
+    private final Path path;
+    private final Properties nanos = new Properties();
+
+    TimingHistory(Path path) throws IOException {
+        this.path = path;
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                nanos.load(reader);
+            }
+        }
+    }
+
+    boolean has(int day) {
+        return nanos.containsKey(Integer.toString(day));
+    }
+
+    // -1 if the day has not been run before
+    long expectedNanos(int day) {
+        return Long.parseLong(nanos.getProperty(Integer.toString(day), "-1"));
+    }
+
+    synchronized void record(Timing timing) {
+        nanos.setProperty(Integer.toString(timing.getDay()), Long.toString(timing.getWarmNanos()));
+    }
+
+    synchronized void save() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            nanos.store(writer, "warm nanoseconds per day");
+        }
+    }
+}
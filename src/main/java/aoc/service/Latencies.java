@@ -0,0 +1,39 @@
+package aoc.service;
+
+import java.util.Arrays;
+
+// latencies of the most recent requests to one endpoint, percentiles are taken over those
+class Latencies {
+    static private final int WINDOW = 4096;
+    private final long[] nanos = new long[WINDOW];
+    private long count = 0;
+    private long errors = 0;
+
+    synchronized void record(long elapsed, boolean error) {
+        nanos[(int)(count % WINDOW)] = elapsed;
+        count++;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    synchronized long errors() {
+        return errors;
+    }
+
+    // nearest rank percentile, 0 without requests
+    synchronized long percentile(double p) {
+        int size = (int)Math.min(count, WINDOW);
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        int rank = (int)Math.ceil(p / 100 * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,309 @@
+package aoc.service;
+
+import aoc.Solver;
+import aoc.runner.Days;
+import aoc.runner.ResultCache;
+import aoc.runner.Scheduler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Solves posted inputs in a long running JVM, so callers skip the JVM start and get JIT compiled solvers.
+// usage: SolveService [--port PORT] [--limit DAY=N,...] [--wait SECONDS] [--no-cache]
+//   POST /solve/DAY  with the input as body -> {"day":12,"partOne":504,"partTwo":500,"cached":false,"millis":1.234}
+//   GET  /stats                           -> requests, errors, p50 and p99 in milliseconds per endpoint
+// Every request runs on its own virtual thread when the JDK has them (21+), otherwise on a cached thread pool.
+// Each day has a limit of concurrent solves: the searches of days 15, 16, 19 and 24 one at a time, so a burst of them
+// waits for its turn (and fails with 503 after --wait seconds) while cheap days are still answered right away.
+// Like the runner every solve runs in a ForkJoinPool of its own: a single thread for the cheap days, and the cores
+// divided over the heavy solves that may run at once for the searches.
+public class SolveService {
+    static private final int DEFAULT_PORT = 8022;
+    static private final int MAX_INPUT_BYTES = 64 << 20;
+
+    final Semaphore[] limits = new Semaphore[Days.COUNT];
+    // threads of every solve of a heavy day
+    final int heavyBudget;
+    final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+    final ResultCache cache;
+    final int waitSeconds;
+    HttpServer server;
+    ExecutorService executor;
+
+    SolveService(Map<Integer, Integer> limitOverrides, int waitSeconds, ResultCache cache) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int light = 4 * cores;
+        long heavySolves = 0;
+        for (int day = 1; day <= Days.COUNT; day++) {
+            int limit = limitOverrides.getOrDefault(day, Scheduler.HEAVY_DAYS.contains(day) ? 1 : light);
+            limits[day - 1] = new Semaphore(limit, true);
+            if (Scheduler.HEAVY_DAYS.contains(day)) {
+                heavySolves += limit;
+            }
+        }
+        this.heavyBudget = Scheduler.heavyBudget(cores, heavySolves);
+        this.waitSeconds = waitSeconds;
+        this.cache = cache;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor is looked up at runtime so this builds on JDK 17
+    static ExecutorService requestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService)factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/solve/", this::solve);
+        server.createContext("/stats", this::stats);
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    static class HttpError extends RuntimeException {
+        static private final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    void solve(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        // requests for unknown days count for /solve
+        String endpoint = "/solve";
+        boolean error = true;
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                throw new HttpError(405, "use POST with the input as body");
+            }
+            int day = parseDay(exchange.getRequestURI().getPath().substring("/solve/".length()));
+            endpoint = "/solve/" + day;
+            byte[] input = readBody(exchange);
+            Semaphore limit = limits[day - 1];
+            if (!limit.tryAcquire(waitSeconds, TimeUnit.SECONDS)) {
+                throw new HttpError(503, String.format("too many requests for day %d", day));
+            }
+            String json;
+            try {
+                json = answer(day, input, start);
+            } finally {
+                limit.release();
+            }
+            send(exchange, 200, json);
+            error = false;
+        } catch (HttpError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "interrupted");
+        } catch (CharacterCodingException e) {
+            // a body the line based days cannot read as UTF-8
+            sendError(exchange, 422, String.valueOf(e));
+        } catch (IOException e) {
+            // the temporary file, or a client that went away
+            sendError(exchange, 500, String.valueOf(e));
+        } catch (RuntimeException e) {
+            // a solver failing on a bad input
+            sendError(exchange, 422, String.valueOf(e));
+        } catch (Throwable e) {
+            // a StackOverflowError or OutOfMemoryError of a solver still gets an answer
+            sendError(exchange, 500, String.valueOf(e));
+        } finally {
+            latencies.computeIfAbsent(endpoint, key -> new Latencies()).record(System.nanoTime() - start, error);
+            exchange.close();
+        }
+    }
+
+    static int parseDay(String day) {
+        try {
+            int parsed = Integer.parseInt(day);
+            Days.parser(parsed);
+            return parsed;
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(404, "no such day: " + day);
+        }
+    }
+
+    static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_INPUT_BYTES + 1);
+            if (body.length > MAX_INPUT_BYTES) {
+                throw new HttpError(413, "input is larger than " + MAX_INPUT_BYTES + " bytes");
+            }
+            return body;
+        }
+    }
+
+    // the solvers parse files, so the input goes through a temporary file
+    String answer(int day, byte[] input, long start) throws IOException {
+        ResultCache.Key key = ResultCache.Key.of(day, input);
+        if (cache != null) {
+            ResultCache.Entry entry = cache.get(key);
+            if (entry != null) {
+                return result(day, entry.getPartOne(), entry.getPartTwo(), true, start);
+            }
+        }
+        Path file = Files.createTempFile(String.format("aoc-%02d-", day), ".txt");
+        try {
+            Files.write(file, input);
+            Object[] answers = Scheduler.inPool(Scheduler.HEAVY_DAYS.contains(day) ? heavyBudget : 1, () -> {
+                Solver solver = Days.parser(day).parse(file.toString());
+                return new Object[] { solver.partOne(), solver.partTwo() };
+            });
+            Object partOne = answers[0];
+            Object partTwo = answers[1];
+            if (cache != null) {
+                cache.put(key, partOne, partTwo);
+            }
+            return result(day, partOne, partTwo, false, start);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static String result(int day, Object partOne, Object partTwo, boolean cached, long start) {
+        return String.format("{\"day\":%d,\"partOne\":%s,\"partTwo\":%s,\"cached\":%b,\"millis\":%.3f}",
+                day, json(partOne), json(partTwo), cached, (System.nanoTime() - start) / 1e6);
+    }
+
+    void stats(HttpExchange exchange) throws IOException {
+        try {
+            StringBuilder json = new StringBuilder("{");
+            for (Map.Entry<String, Latencies> entry : new TreeMap<>(latencies).entrySet()) {
+                Latencies endpoint = entry.getValue();
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append(String.format("%s:{\"requests\":%d,\"errors\":%d,\"p50\":%.3f,\"p99\":%.3f}",
+                        json(entry.getKey()), endpoint.count(), endpoint.errors(),
+                        endpoint.percentile(50) / 1e6, endpoint.percentile(99) / 1e6));
+            }
+            send(exchange, 200, json.append('}').toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static String error(String message) {
+        return String.format("{\"error\":%s}", json(message));
+    }
+
+    // numbers stay numbers, everything else (the CRT of day 10) becomes a string
+    static String json(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        StringBuilder s = new StringBuilder("\"");
+        for (char ch : value.toString().toCharArray()) {
+            switch (ch) {
+                case '"' -> s.append("\\\"");
+                case '\\' -> s.append("\\\\");
+                case '\n' -> s.append("\\n");
+                case '\r' -> s.append("\\r");
+                case '\t' -> s.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        s.append(String.format("\\u%04x", (int)ch));
+                    } else {
+                        s.append(ch);
+                    }
+                }
+            }
+        }
+        return s.append('"').toString();
+    }
+
+    static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // once the headers are out the status can no longer change, the client sees the response end early
+    static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            send(exchange, status, error(message));
+        } catch (IOException e) {
+            // the client is gone
+        }
+    }
+
+    // <limits> = <limit> ("," <limit>)*
+    // <limit> = INTEGER "=" INTEGER
+    static Map<Integer, Integer> parseLimits(String limits) {
+        Map<Integer, Integer> parsed = new TreeMap<>();
+        for (String limit : limits.split(",")) {
+            String[] parts = limit.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected DAY=N: " + limit);
+            }
+            int day = Integer.parseInt(parts[0]);
+            Days.parser(day);
+            int n = Integer.parseInt(parts[1]);
+            if (n < 1) {
+                throw new IllegalArgumentException("limit must be at least 1: " + limit);
+            }
+            parsed.put(day, n);
+        }
+        return parsed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int waitSeconds = 60;
+        boolean useCache = true;
+        Map<Integer, Integer> limits = Map.of();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--limit" -> limits = parseLimits(args[++i]);
+                case "--wait" -> waitSeconds = Integer.parseInt(args[++i]);
+                case "--no-cache" -> useCache = false;
+                default -> throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+        ResultCache cache = useCache ? ResultCache.open() : null;
+        SolveService service = new SolveService(limits, waitSeconds, cache);
+        service.start(port);
+        System.out.printf("listening on port %d%s\n", port, useCache && cache == null ? " (result cache in use by another process)" : "");
+    }
+}